@@ -0,0 +1,70 @@
+package com.android.jmaxime.views.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search of the filter dialog : one query on a cold cache, a query typed character by character,
+ * the ranked search and the code prefix search.
+ * The indexes are prepared once per trial, as the adapter does when the list is set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FilterBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int mSize;
+
+    private TitleSearchIndex mIndex;
+    private FuzzyMatcher mMatcher;
+    private CodeIndex mCodeIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CompactCatalog catalog = SyntheticCatalog.create(mSize);
+        mIndex = new TitleSearchIndex(catalog.getTitles());
+        mIndex.prepare();
+        mMatcher = new FuzzyMatcher(mIndex, catalog.getCodes());
+        mMatcher.prepare();
+        mCodeIndex = new CodeIndex(catalog.getCodes());
+        mCodeIndex.prepare();
+    }
+
+    @Benchmark
+    public int[] substring() {
+        return mIndex.search(SyntheticCatalog.QUERY, null);
+    }
+
+    /**
+     * Every prefix of the query on a new filter, each keystroke narrowing the previous result
+     */
+    @Benchmark
+    public void typeAhead(Blackhole blackhole) {
+        TitleFilter filter = new TitleFilter(mIndex, new QueryResultCache());
+        String query = SyntheticCatalog.QUERY;
+        for (int i = 1; i <= query.length(); i++) {
+            blackhole.consume(filter.filter(query.substring(0, i), null));
+        }
+    }
+
+    @Benchmark
+    public FuzzyMatcher.Matches ranked() {
+        return mMatcher.search(SyntheticCatalog.QUERY, 100, null);
+    }
+
+    @Benchmark
+    public int[] codePrefix() {
+        return mCodeIndex.searchPrefix(SyntheticCatalog.CODE_PREFIX);
+    }
+}
@@ -0,0 +1,81 @@
+package com.android.jmaxime.views.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bookkeeping done when the list or the filter changes : indexing the ids and the match keys,
+ * resolving a default value, selecting every filtered row and diffing two filter results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SelectionBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int mSize;
+
+    private CompactCatalog mCatalog;
+    private List<SyntheticCatalog.Item> mItems;
+    private ItemValueMatcher mValueMatcher;
+    private IdPositionIndex mIdIndex;
+    private int[] mFiltered;
+    private int[] mNarrowed;
+    private String mLastId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mCatalog = SyntheticCatalog.create(mSize);
+        mItems = SyntheticCatalog.items(mCatalog);
+        mValueMatcher = ItemValueMatcher.of(mItems);
+        mIdIndex = new IdPositionIndex(mCatalog.getIds());
+        TitleSearchIndex index = new TitleSearchIndex(mCatalog.getTitles());
+        String query = SyntheticCatalog.QUERY;
+        mFiltered = index.search(query.substring(0, 2), null);
+        mNarrowed = index.search(query, null);
+        mIdIndex.setFiltered(mFiltered);
+        mLastId = mCatalog.getId(mSize - 1);
+    }
+
+    @Benchmark
+    public IdPositionIndex indexIds() {
+        return new IdPositionIndex(mCatalog.getIds());
+    }
+
+    @Benchmark
+    public ItemValueMatcher indexMatchKeys() {
+        return ItemValueMatcher.of(mItems);
+    }
+
+    @Benchmark
+    public int findDefaultValue() {
+        return mValueMatcher.find(mItems, mLastId);
+    }
+
+    @Benchmark
+    public int filteredPosition() {
+        return mIdIndex.getFilteredPosition(mLastId);
+    }
+
+    @Benchmark
+    public int[] selectAllFiltered() {
+        MultiSelection selection = new MultiSelection(mSize);
+        selection.selectAll(mFiltered);
+        return selection.getSelectedPositions();
+    }
+
+    @Benchmark
+    public ChangeSet diffFilterResults() {
+        return ChangeSet.ofSortedPositions(mFiltered, mFiltered.length, mNarrowed, mNarrowed.length);
+    }
+}
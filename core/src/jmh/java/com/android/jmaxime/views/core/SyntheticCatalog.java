@@ -0,0 +1,77 @@
+package com.android.jmaxime.views.core;
+
+import com.android.jmaxime.views.interfaces.SpinnerItemMatchKeys;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Reproducible catalogs for the benchmarks : titles of two to four made-up words, with a few
+ * accented letters, numeric codes and string ids, always the same for a given size.
+ */
+final class SyntheticCatalog {
+
+    private static final String[] SYLLABLES = {
+            "ba", "ce", "di", "fo", "gu", "la", "me", "ni", "po", "ru",
+            "sa", "té", "vi", "zo", "an", "el", "ir", "on", "ur", "châ"
+    };
+
+    /**
+     * Queries typed in the benchmarks, one character at a time for the type-ahead ones
+     */
+    static final String QUERY = "lamé";
+    static final String CODE_PREFIX = "0042";
+
+    private SyntheticCatalog() {
+    }
+
+    static CompactCatalog create(int size) {
+        Random random = new Random(size);
+        CompactCatalog.Builder builder = new CompactCatalog.Builder(size);
+        StringBuilder title = new StringBuilder(32);
+        for (int i = 0; i < size; i++) {
+            title.setLength(0);
+            int words = 2 + random.nextInt(3);
+            for (int w = 0; w < words; w++) {
+                if (w > 0) {
+                    title.append(' ');
+                }
+                int syllables = 1 + random.nextInt(3);
+                for (int s = 0; s < syllables; s++) {
+                    title.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+                }
+                if (w == 0) {
+                    title.setCharAt(0, Character.toUpperCase(title.charAt(0)));
+                }
+            }
+            builder.add("id-" + i, title.toString(), String.format("%08d", random.nextInt(100000000)));
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return one item per row of catalog, matched by its id and its code
+     */
+    static List<Item> items(CompactCatalog catalog) {
+        List<Item> items = new ArrayList<>(catalog.size());
+        for (int i = 0; i < catalog.size(); i++) {
+            items.add(new Item(catalog.getId(i), catalog.getCode(i)));
+        }
+        return items;
+    }
+
+    static final class Item implements SpinnerItemMatchKeys {
+
+        private final String[] mKeys;
+
+        Item(String id, String code) {
+            mKeys = new String[]{id, code};
+        }
+
+        @Override
+        public String[] getMatchKeys() {
+            return mKeys;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.android.jmaxime.views.core;
+
+/**
+ * Cancellation flag shared between the thread requesting some work and the thread doing it.
+ * Long running work checks {@link #isCancelled()} regularly and gives up once it returns true.
+ */
+public class CancellationToken {
+
+    private volatile boolean mCancelled;
+
+    public void cancel() {
+        mCancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return mCancelled;
+    }
+}
@@ -0,0 +1,333 @@
+package com.android.jmaxime.views.core;
+
+import java.util.Arrays;
+
+/**
+ * Row-level changes between two versions of a list, computed off the main thread
+ * and replayed later on a {@link Receiver} (typically a RecyclerView adapter).
+ * <p>
+ * Operations are recorded in dispatch order : every position is relative to the
+ * list as it is after the previous operations have been applied.
+ */
+public final class ChangeSet {
+
+    private static final int OP_INSERT = 0;
+    private static final int OP_REMOVE = 1;
+    private static final int OP_MOVE = 2;
+    private static final int OP_CHANGE = 3;
+
+    private int[] mOps = new int[3 * 8];
+    private int mSize;
+
+    ChangeSet() {
+    }
+
+    /**
+     * Computes the changes between two ascending subsets of the same source list.
+     *
+     * @param oldPositions ascending source positions of the old rows, or null for the identity 0..oldCount-1
+     * @param oldCount     number of old rows
+     * @param newPositions ascending source positions of the new rows, or null for the identity 0..newCount-1
+     * @param newCount     number of new rows
+     * @return the insertions and removals turning the old rows into the new ones
+     */
+    public static ChangeSet ofSortedPositions(int[] oldPositions, int oldCount, int[] newPositions, int newCount) {
+        ChangeSet changes = new ChangeSet();
+        int i = 0;
+        int j = 0;
+        int position = 0;
+        while (i < oldCount || j < newCount) {
+            int o = i < oldCount ? positionAt(oldPositions, i) : Integer.MAX_VALUE;
+            int n = j < newCount ? positionAt(newPositions, j) : Integer.MAX_VALUE;
+            if (o == n) {
+                i++;
+                j++;
+                position++;
+            } else if (o < n) {
+                int start = i;
+                while (i < oldCount && positionAt(oldPositions, i) < n) {
+                    i++;
+                }
+                changes.add(OP_REMOVE, position, i - start);
+            } else {
+                int start = j;
+                while (j < newCount && positionAt(newPositions, j) < o) {
+                    j++;
+                }
+                changes.add(OP_INSERT, position, j - start);
+                position += j - start;
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Computes the changes between two subsets of the same source list in any order,
+     * for example ranked search results.
+     *
+     * @param oldPositions source positions of the old rows, or null for the identity 0..oldCount-1
+     * @param oldCount     number of old rows
+     * @param newPositions source positions of the new rows, or null for the identity 0..newCount-1
+     * @param newCount     number of new rows
+     * @param sourceCount  number of items of the source list
+     * @return the removals, moves and insertions turning the old rows into the new ones
+     */
+    public static ChangeSet ofPositions(int[] oldPositions, int oldCount, int[] newPositions, int newCount, int sourceCount) {
+        int[] oldIndexOfSource = new int[sourceCount];
+        Arrays.fill(oldIndexOfSource, -1);
+        for (int i = 0; i < oldCount; i++) {
+            oldIndexOfSource[positionAt(oldPositions, i)] = i;
+        }
+        int[] oldIndexOfNew = new int[newCount];
+        for (int j = 0; j < newCount; j++) {
+            oldIndexOfNew[j] = oldIndexOfSource[positionAt(newPositions, j)];
+        }
+        return ofMatches(oldCount, oldIndexOfNew, null);
+    }
+
+    /**
+     * Computes the changes between two lists whose items were matched by identity.
+     * <p>
+     * Removals are dispatched first, then the matched items which are not part of a longest
+     * increasing subsequence of the old order are moved, then the new items are inserted and
+     * finally the matched items whose contents differ are changed. Positions during the moves
+     * are tracked with a Fenwick tree, so the whole computation is O((n + m) log(n + m)).
+     *
+     * @param oldCount      number of old items
+     * @param oldIndexOfNew for every new item, the index of the matching old item or -1 for an insertion;
+     *                      an old index may appear only once
+     * @param contents      content comparison of the matched items, null if they never change
+     * @return the changes turning the old list into the new one
+     */
+    public static ChangeSet ofMatches(int oldCount, int[] oldIndexOfNew, Contents contents) {
+        ChangeSet changes = new ChangeSet();
+        final int newCount = oldIndexOfNew.length;
+
+        /* removals, from the end so the old positions stay valid */
+        int[] rank = new int[oldCount];
+        Arrays.fill(rank, -1);
+        for (int j = 0; j < newCount; j++) {
+            if (oldIndexOfNew[j] >= 0) {
+                rank[oldIndexOfNew[j]] = 0;
+            }
+        }
+        for (int i = oldCount - 1; i >= 0; ) {
+            if (rank[i] < 0) {
+                int end = i;
+                while (i >= 0 && rank[i] < 0) {
+                    i--;
+                }
+                changes.add(OP_REMOVE, i + 1, end - i);
+            } else {
+                i--;
+            }
+        }
+        int kept = 0;
+        for (int i = 0; i < oldCount; i++) {
+            if (rank[i] >= 0) {
+                rank[i] = kept++;
+            }
+        }
+
+        /* ranks of the kept items, in the new order, and the ones which do not move */
+        int[] ranks = new int[kept];
+        int k = 0;
+        for (int j = 0; j < newCount; j++) {
+            if (oldIndexOfNew[j] >= 0) {
+                ranks[k++] = rank[oldIndexOfNew[j]];
+            }
+        }
+        boolean[] stays = longestIncreasingSubsequence(ranks);
+
+        /*
+         * Slots of the Fenwick tree : every kept item has a slot in the old order, and every
+         * moving item has a second slot just after the staying item it follows in the new order.
+         */
+        int[] movedAfter = new int[kept + 1];
+        int anchor = -1;
+        for (k = 0; k < kept; k++) {
+            if (stays[k]) {
+                anchor = ranks[k];
+            } else {
+                movedAfter[anchor + 1]++;
+            }
+        }
+        int[] slotOfRank = new int[kept];
+        int[] groupStart = new int[kept + 1];
+        int slot = 0;
+        groupStart[0] = slot;
+        slot += movedAfter[0];
+        for (int r = 0; r < kept; r++) {
+            slotOfRank[r] = slot++;
+            groupStart[r + 1] = slot;
+            slot += movedAfter[r + 1];
+        }
+        int[] tree = new int[slot + 1];
+        for (int r = 0; r < kept; r++) {
+            fenwickAdd(tree, slotOfRank[r], 1);
+        }
+        anchor = -1;
+        for (k = 0; k < kept; k++) {
+            if (stays[k]) {
+                anchor = ranks[k];
+                continue;
+            }
+            int from = fenwickCount(tree, slotOfRank[ranks[k]]);
+            fenwickAdd(tree, slotOfRank[ranks[k]], -1);
+            int target = groupStart[anchor + 1]++;
+            int to = fenwickCount(tree, target);
+            fenwickAdd(tree, target, 1);
+            if (from != to) {
+                changes.add(OP_MOVE, from, to);
+            }
+        }
+
+        /* insertions, in ascending order the prefix is already final */
+        for (int j = 0; j < newCount; ) {
+            if (oldIndexOfNew[j] < 0) {
+                int start = j;
+                while (j < newCount && oldIndexOfNew[j] < 0) {
+                    j++;
+                }
+                changes.add(OP_INSERT, start, j - start);
+            } else {
+                j++;
+            }
+        }
+
+        if (contents != null) {
+            for (int j = 0; j < newCount; ) {
+                if (oldIndexOfNew[j] >= 0 && !contents.areContentsTheSame(oldIndexOfNew[j], j)) {
+                    int start = j;
+                    while (j < newCount && oldIndexOfNew[j] >= 0 && !contents.areContentsTheSame(oldIndexOfNew[j], j)) {
+                        j++;
+                    }
+                    changes.add(OP_CHANGE, start, j - start);
+                } else {
+                    j++;
+                }
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * @return for every value, whether it belongs to one longest strictly increasing subsequence
+     */
+    private static boolean[] longestIncreasingSubsequence(int[] values) {
+        final int n = values.length;
+        int[] tails = new int[n];
+        int[] previous = new int[n];
+        int length = 0;
+        for (int i = 0; i < n; i++) {
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[tails[mid]] < values[i]) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            previous[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+            if (low == length) {
+                length++;
+            }
+        }
+        boolean[] result = new boolean[n];
+        for (int i = length > 0 ? tails[length - 1] : -1; i >= 0; i = previous[i]) {
+            result[i] = true;
+        }
+        return result;
+    }
+
+    private static void fenwickAdd(int[] tree, int slot, int delta) {
+        for (int i = slot + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * @return the number of present slots before slot
+     */
+    private static int fenwickCount(int[] tree, int slot) {
+        int count = 0;
+        for (int i = slot; i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    private static int positionAt(int[] positions, int index) {
+        return positions != null ? positions[index] : index;
+    }
+
+    void add(int op, int first, int second) {
+        if (mSize + 3 > mOps.length) {
+            mOps = Arrays.copyOf(mOps, mOps.length * 2);
+        }
+        mOps[mSize++] = op;
+        mOps[mSize++] = first;
+        mOps[mSize++] = second;
+    }
+
+    /**
+     * @return true if there is no change to dispatch
+     */
+    public boolean isEmpty() {
+        return mSize == 0;
+    }
+
+    /**
+     * Replays every recorded operation, in order.
+     *
+     * @param receiver receiver of the changes
+     */
+    public void dispatchTo(Receiver receiver) {
+        for (int i = 0; i < mSize; i += 3) {
+            int first = mOps[i + 1];
+            int second = mOps[i + 2];
+            switch (mOps[i]) {
+                case OP_INSERT:
+                    receiver.onInserted(first, second);
+                    break;
+                case OP_REMOVE:
+                    receiver.onRemoved(first, second);
+                    break;
+                case OP_MOVE:
+                    receiver.onMoved(first, second);
+                    break;
+                case OP_CHANGE:
+                    receiver.onChanged(first, second);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Content comparison of two matched items
+     */
+    public interface Contents {
+
+        /**
+         * @return true if the old item and the new item render the same way
+         */
+        boolean areContentsTheSame(int oldIndex, int newIndex);
+    }
+
+    /**
+     * Receiver of the changes, mirrors the RecyclerView.Adapter notifyItem* methods
+     */
+    public interface Receiver {
+
+        void onInserted(int position, int count);
+
+        void onRemoved(int position, int count);
+
+        void onMoved(int fromPosition, int toPosition);
+
+        void onChanged(int position, int count);
+    }
+}
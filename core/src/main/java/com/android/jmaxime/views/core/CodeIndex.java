@@ -0,0 +1,233 @@
+package com.android.jmaxime.views.core;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Exact and prefix lookup of item codes, for codes typed or sent character by character
+ * by a barcode scanner.
+ * <p>
+ * The codes are folded once into a single arena and their positions sorted by folded code,
+ * so a lookup is two binary searches :
+ * O(log n) comparisons of at most the length of the query. The index is built lazily,
+ * on the first call to {@link #prepare()} or to a lookup.
+ * <p>
+ * The matches of a prefix are a range of the sorted codes, returned in list order : a prefix which
+ * extends the previous one keeps the previous matches whose code is in the new range, in O(previous matches),
+ * other prefixes either sort the range or scan the sorted index of each position, whichever is cheaper.
+ */
+public class CodeIndex {
+
+    private List<? extends CharSequence> mCodes;
+    private final int mSize;
+    /* folded codes in list order, and the positions of the non empty ones by ascending code */
+    private FoldedColumn mFolded;
+    private int[] mSortedPositions;
+    /* sorted index of the code of each list position, -1 for the positions without code */
+    private int[] mSortedIndexes;
+
+    /**
+     * @param codes codes to index, read once when the index is built; null entries are ignored
+     */
+    public CodeIndex(List<? extends CharSequence> codes) {
+        mCodes = codes;
+        mSize = codes.size();
+    }
+
+    /**
+     * Builds the index if it is not built yet.
+     */
+    public synchronized void prepare() {
+        if (mFolded != null) {
+            return;
+        }
+        FoldedColumn folded = FoldedColumn.of(mCodes, true);
+        int[] order = new int[mSize];
+        int count = 0;
+        for (int i = 0; i < mSize; i++) {
+            if (folded.length(i) > 0) {
+                order[count++] = i;
+            }
+        }
+        order = Arrays.copyOf(order, count);
+        /* stable, so equal codes stay in list order */
+        mergeSort(order, new int[count], 0, count, folded);
+
+        int[] sortedIndexes = new int[mSize];
+        Arrays.fill(sortedIndexes, -1);
+        for (int k = 0; k < count; k++) {
+            sortedIndexes[order[k]] = k;
+        }
+        mSortedIndexes = sortedIndexes;
+        mSortedPositions = order;
+        mFolded = folded;
+        mCodes = null;
+    }
+
+    /**
+     * @param code code, folded before matching
+     * @return the first list position of an item with this code, or -1
+     */
+    public int getPosition(String code) {
+        prepare();
+        String folded = TextNormalizer.fold(code).trim();
+        if (folded.isEmpty()) {
+            return -1;
+        }
+        int k = lowerBound(folded);
+        return k < mSortedPositions.length && mFolded.compareTo(mSortedPositions[k], folded) == 0
+                ? mSortedPositions[k] : -1;
+    }
+
+    /**
+     * @param prefix code prefix, folded before matching
+     * @return the number of items whose code starts with prefix
+     */
+    public int countPrefix(String prefix) {
+        prepare();
+        String folded = TextNormalizer.fold(prefix).trim();
+        return upperBound(folded) - lowerBound(folded);
+    }
+
+    /**
+     * @param prefix code prefix, folded before matching
+     * @return the ascending list positions of the items whose code starts with prefix
+     */
+    public int[] searchPrefix(String prefix) {
+        return searchPrefix(prefix, null).getPositions();
+    }
+
+    /**
+     * @param prefix   code prefix, folded before matching
+     * @param previous matches of the previous prefix, narrowed when prefix extends it; null to search the whole index
+     * @return the items whose code starts with prefix
+     */
+    public Matches searchPrefix(String prefix, Matches previous) {
+        prepare();
+        String folded = TextNormalizer.fold(prefix).trim();
+        int from = lowerBound(folded);
+        int to = upperBound(folded);
+        if (previous != null && previous.mIndex == this && folded.startsWith(previous.mPrefix)) {
+            return new Matches(this, folded, inRange(previous.mPositions, from, to), previous.mPositions.length);
+        }
+        if (sortCost(to - from) < mSize) {
+            int[] positions = Arrays.copyOfRange(mSortedPositions, from, to);
+            Arrays.sort(positions);
+            return new Matches(this, folded, positions, positions.length);
+        }
+        return new Matches(this, folded, inRange(null, from, to), mSize);
+    }
+
+    /**
+     * @param positions ascending list positions, null for every position
+     * @return the positions whose code has its sorted index in [from, to), in the same order
+     */
+    private int[] inRange(int[] positions, int from, int to) {
+        int[] matches = new int[to - from];
+        int count = 0;
+        int size = positions != null ? positions.length : mSize;
+        for (int i = 0; i < size && count < matches.length; i++) {
+            int position = positions != null ? positions[i] : i;
+            int k = mSortedIndexes[position];
+            if (k >= from && k < to) {
+                matches[count++] = position;
+            }
+        }
+        return count == matches.length ? matches : Arrays.copyOf(matches, count);
+    }
+
+    /**
+     * @return an estimate of the comparisons to sort count positions
+     */
+    private static long sortCost(int count) {
+        return count < 2 ? count : (long) count * (32 - Integer.numberOfLeadingZeros(count - 1));
+    }
+
+    /**
+     * @return the first sorted index whose code is not less than folded
+     */
+    private int lowerBound(String folded) {
+        int low = 0;
+        int high = mSortedPositions.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mFolded.compareTo(mSortedPositions[mid], folded) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the first sorted index whose code is greater than folded and does not start with it
+     */
+    private int upperBound(String folded) {
+        int low = lowerBound(folded);
+        int high = mSortedPositions.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mFolded.startsWith(mSortedPositions[mid], folded)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Items whose code starts with a prefix, in list order
+     */
+    public static class Matches {
+
+        private final CodeIndex mIndex;
+        private final String mPrefix;
+        private final int[] mPositions;
+        private final int mScannedCount;
+
+        Matches(CodeIndex index, String prefix, int[] positions, int scannedCount) {
+            mIndex = index;
+            mPrefix = prefix;
+            mPositions = positions;
+            mScannedCount = scannedCount;
+        }
+
+        /**
+         * @return the ascending list positions of the matches
+         */
+        public int[] getPositions() {
+            return mPositions;
+        }
+
+        /**
+         * @return the number of positions read to find the matches
+         */
+        public int getScannedCount() {
+            return mScannedCount;
+        }
+    }
+
+    private static void mergeSort(int[] order, int[] buffer, int from, int to, FoldedColumn keys) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(order, buffer, from, mid, keys);
+        mergeSort(order, buffer, mid, to, keys);
+        if (keys.compare(order[mid - 1], order[mid]) <= 0) {
+            return;
+        }
+        System.arraycopy(order, from, buffer, from, to - from);
+        int i = from;
+        int j = mid;
+        for (int k = from; k < to; k++) {
+            if (j >= to || (i < mid && keys.compare(buffer[i], buffer[j]) <= 0)) {
+                order[k] = buffer[i++];
+            } else {
+                order[k] = buffer[j++];
+            }
+        }
+    }
+}
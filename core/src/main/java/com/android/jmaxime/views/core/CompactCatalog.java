@@ -0,0 +1,185 @@
+package com.android.jmaxime.views.core;
+
+import java.nio.charset.Charset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Ids, titles and codes of a large catalog packed in a single arena instead of one object
+ * and three strings per item.
+ * <p>
+ * The fields of every item are stored one after the other in the arena, the field f of the
+ * item i spans [offsets[3i + f], offsets[3i + f + 1]). The arena is a byte array when every
+ * character is in Latin-1, a char array otherwise. Strings are created on read only.
+ * Null fields take no room in the arena and are flagged in a bitmap, so they are read back as null
+ * and stay distinct from empty strings.
+ */
+public class CompactCatalog implements ItemColumns {
+
+    private static final int ID = 0;
+    private static final int TITLE = 1;
+    private static final int CODE = 2;
+    private static final int FIELDS = 3;
+    private static final Charset LATIN_1 = Charset.forName("ISO-8859-1");
+
+    private final byte[] mBytes;
+    private final char[] mChars;
+    private final int[] mOffsets;
+    /* bit 3i + f is set when the field f of the item i is null */
+    private final long[] mNulls;
+    private final int mSize;
+    private final Column mIds = new Column(ID);
+    private final Column mTitles = new Column(TITLE);
+    private final Column mCodes = new Column(CODE);
+
+    private CompactCatalog(byte[] bytes, char[] chars, int[] offsets, long[] nulls, int size) {
+        mBytes = bytes;
+        mChars = chars;
+        mOffsets = offsets;
+        mNulls = nulls;
+        mSize = size;
+    }
+
+    public int size() {
+        return mSize;
+    }
+
+    public String getId(int position) {
+        return read(position, ID);
+    }
+
+    public String getTitle(int position) {
+        return read(position, TITLE);
+    }
+
+    public String getCode(int position) {
+        return read(position, CODE);
+    }
+
+    @Override
+    public Column getTitles() {
+        return mTitles;
+    }
+
+    @Override
+    public Column getCodes() {
+        return mCodes;
+    }
+
+    @Override
+    public Column getIds() {
+        return mIds;
+    }
+
+    private String read(int position, int field) {
+        if (position < 0 || position >= mSize) {
+            throw new IndexOutOfBoundsException("position " + position + ", size " + mSize);
+        }
+        int index = position * FIELDS + field;
+        if ((mNulls[index >>> 6] & (1L << index)) != 0) {
+            return null;
+        }
+        int start = mOffsets[index];
+        int length = mOffsets[index + 1] - start;
+        if (length == 0) {
+            return "";
+        }
+        return mBytes != null ? new String(mBytes, start, length, LATIN_1) : new String(mChars, start, length);
+    }
+
+    /**
+     * One field of every item, as a read-only list
+     */
+    public final class Column extends AbstractList<String> implements RandomAccess {
+
+        private final int mField;
+
+        private Column(int field) {
+            mField = field;
+        }
+
+        @Override
+        public String get(int index) {
+            return read(index, mField);
+        }
+
+        @Override
+        public int size() {
+            return mSize;
+        }
+    }
+
+    public static class Builder {
+
+        private char[] mChars;
+        private int[] mOffsets;
+        private long[] mNulls;
+        private int mLength;
+        private int mSize;
+        private boolean mLatin1 = true;
+
+        public Builder() {
+            this(16);
+        }
+
+        /**
+         * @param expectedSize expected number of items
+         */
+        public Builder(int expectedSize) {
+            mChars = new char[Math.max(16, expectedSize * 16)];
+            mOffsets = new int[Math.max(1, expectedSize) * FIELDS + 1];
+            mNulls = new long[(mOffsets.length >>> 6) + 1];
+        }
+
+        public Builder add(String id, String title, String code) {
+            if ((mSize + 1) * FIELDS + 1 > mOffsets.length) {
+                mOffsets = Arrays.copyOf(mOffsets, mOffsets.length * 2);
+                mNulls = Arrays.copyOf(mNulls, (mOffsets.length >>> 6) + 1);
+            }
+            int base = mSize * FIELDS;
+            append(base + ID, id);
+            mOffsets[base + 1] = mLength;
+            append(base + TITLE, title);
+            mOffsets[base + 2] = mLength;
+            append(base + CODE, code);
+            mOffsets[base + 3] = mLength;
+            mSize++;
+            return this;
+        }
+
+        private void append(int index, String value) {
+            if (value == null) {
+                mNulls[index >>> 6] |= 1L << index;
+                return;
+            }
+            int length = value.length();
+            if (mLength + length > mChars.length) {
+                mChars = Arrays.copyOf(mChars, Math.max(mChars.length * 2, mLength + length));
+            }
+            value.getChars(0, length, mChars, mLength);
+            if (mLatin1) {
+                for (int i = mLength; i < mLength + length; i++) {
+                    if (mChars[i] > 0xFF) {
+                        mLatin1 = false;
+                        break;
+                    }
+                }
+            }
+            mLength += length;
+        }
+
+        public CompactCatalog build() {
+            int[] offsets = Arrays.copyOf(mOffsets, mSize * FIELDS + 1);
+            long[] nulls = Arrays.copyOf(mNulls, (mSize * FIELDS >>> 6) + 1);
+            if (mLatin1) {
+                byte[] bytes = new byte[mLength];
+                for (int i = 0; i < mLength; i++) {
+                    bytes[i] = (byte) mChars[i];
+                }
+                return new CompactCatalog(bytes, null, offsets, nulls, mSize);
+            }
+            return new CompactCatalog(null, Arrays.copyOf(mChars, mLength), offsets, nulls, mSize);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.android.jmaxime.views.core;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Folded values of a column, packed in a single arena instead of one string per row.
+ * <p>
+ * The value at position i spans [offsets[i], offsets[i + 1]) of the arena, a byte array when every
+ * folded character is in Latin-1, a char array otherwise. The search indexes compare the values in
+ * place : no string is created per row, only {@link #get(int)} creates one.
+ */
+final class FoldedColumn {
+
+    private final byte[] mBytes;
+    private final char[] mChars;
+    private final int[] mOffsets;
+
+    private FoldedColumn(byte[] bytes, char[] chars, int[] offsets) {
+        mBytes = bytes;
+        mChars = chars;
+        mOffsets = offsets;
+    }
+
+    /**
+     * @param values values to fold with {@link TextNormalizer#fold(CharSequence)}, null entries are folded as ""
+     * @param trim   true to trim the folded values
+     */
+    static FoldedColumn of(List<? extends CharSequence> values, boolean trim) {
+        int size = values.size();
+        int[] offsets = new int[size + 1];
+        char[] chars = new char[Math.max(16, size * 8)];
+        int length = 0;
+        boolean latin1 = true;
+        for (int i = 0; i < size; i++) {
+            String folded = TextNormalizer.fold(values.get(i));
+            if (trim) {
+                folded = folded.trim();
+            }
+            int count = folded.length();
+            if (length + count > chars.length) {
+                chars = Arrays.copyOf(chars, Math.max(chars.length * 2, length + count));
+            }
+            folded.getChars(0, count, chars, length);
+            for (int k = length; latin1 && k < length + count; k++) {
+                latin1 = chars[k] <= 0xFF;
+            }
+            length += count;
+            offsets[i + 1] = length;
+        }
+        if (!latin1) {
+            return new FoldedColumn(null, Arrays.copyOf(chars, length), offsets);
+        }
+        byte[] bytes = new byte[length];
+        for (int k = 0; k < length; k++) {
+            bytes[k] = (byte) chars[k];
+        }
+        return new FoldedColumn(bytes, null, offsets);
+    }
+
+    int size() {
+        return mOffsets.length - 1;
+    }
+
+    /**
+     * @return the arena index of the first character of the value at position
+     */
+    int start(int position) {
+        return mOffsets[position];
+    }
+
+    int length(int position) {
+        return mOffsets[position + 1] - mOffsets[position];
+    }
+
+    /**
+     * @param index arena index
+     */
+    char charAt(int index) {
+        return mBytes != null ? (char) (mBytes[index] & 0xFF) : mChars[index];
+    }
+
+    /**
+     * @return the value at position, as a new string
+     */
+    String get(int position) {
+        int start = mOffsets[position];
+        int length = mOffsets[position + 1] - start;
+        if (mBytes == null) {
+            return new String(mChars, start, length);
+        }
+        char[] value = new char[length];
+        for (int k = 0; k < length; k++) {
+            value[k] = (char) (mBytes[start + k] & 0xFF);
+        }
+        return new String(value);
+    }
+
+    /**
+     * @return a view of the value at position, reusing view when it is not null
+     */
+    Value view(int position, Value view) {
+        Value value = view != null ? view : new Value();
+        value.mStart = mOffsets[position];
+        value.mLength = mOffsets[position + 1] - value.mStart;
+        return value;
+    }
+
+    /**
+     * @return true if the value at position contains query
+     */
+    boolean contains(int position, String query) {
+        int start = mOffsets[position];
+        int last = mOffsets[position + 1] - query.length();
+        for (int i = start; i <= last; i++) {
+            if (regionMatches(i, query, 0, query.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the value at position starts with prefix
+     */
+    boolean startsWith(int position, String prefix) {
+        return length(position) >= prefix.length() && regionMatches(mOffsets[position], prefix, 0, prefix.length());
+    }
+
+    /**
+     * @return the lexicographic comparison of the value at position with value, as {@link String#compareTo(String)}
+     */
+    int compareTo(int position, String value) {
+        int start = mOffsets[position];
+        int length = mOffsets[position + 1] - start;
+        int count = Math.min(length, value.length());
+        for (int k = 0; k < count; k++) {
+            int diff = charAt(start + k) - value.charAt(k);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return length - value.length();
+    }
+
+    /**
+     * @return the lexicographic comparison of the values at positions a and b
+     */
+    int compare(int a, int b) {
+        int startA = mOffsets[a];
+        int lengthA = mOffsets[a + 1] - startA;
+        int startB = mOffsets[b];
+        int lengthB = mOffsets[b + 1] - startB;
+        int count = Math.min(lengthA, lengthB);
+        for (int k = 0; k < count; k++) {
+            int diff = charAt(startA + k) - charAt(startB + k);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return lengthA - lengthB;
+    }
+
+    private boolean regionMatches(int index, String value, int from, int length) {
+        for (int k = 0; k < length; k++) {
+            if (charAt(index + k) != value.charAt(from + k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reusable view of one value of the column, valid until it is moved to another position
+     */
+    final class Value implements CharSequence {
+
+        private int mStart;
+        private int mLength;
+
+        @Override
+        public int length() {
+            return mLength;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return FoldedColumn.this.charAt(mStart + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().substring(start, end);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder(mLength);
+            for (int k = 0; k < mLength; k++) {
+                builder.append(charAt(k));
+            }
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.android.jmaxime.views.core;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ranked, typo tolerant search over titles and codes.
+ * <p>
+ * The query is split in tokens, every token must match the title or the code of an item.
+ * A token scores, from best to worst : the whole code, a code prefix, a whole title word,
+ * a title word prefix, a substring of the title, a subsequence of a title word starting with
+ * the same letter ("chsr" in "chaussure"), and a word or word prefix at one edit ("randone").
+ * The score of an item is the sum of its token scores.
+ * <p>
+ * Titles and codes are folded once into arenas and scored in place, without a string per item.
+ * Only the best results are kept, in a bounded min-heap : a search costs O(n log k)
+ * whatever the number of matches, instead of sorting every match.
+ */
+public class FuzzyMatcher {
+
+    public static final int SCORE_CODE = 120;
+    public static final int SCORE_CODE_PREFIX = 100;
+    public static final int SCORE_WORD = 90;
+    public static final int SCORE_WORD_PREFIX = 70;
+    public static final int SCORE_SUBSTRING = 50;
+    public static final int SCORE_SUBSEQUENCE = 30;
+    public static final int SCORE_TYPO = 20;
+
+    /* bonus of a first token matching the first word of the title */
+    private static final int FIRST_WORD_BONUS = 5;
+    private static final int MIN_TYPO_LENGTH = 4;
+    private static final int CANCEL_CHECK_MASK = 0xFF;
+
+    private final TitleSearchIndex mTitles;
+    private List<? extends CharSequence> mCodes;
+    private FoldedColumn mFoldedCodes;
+
+    /**
+     * @param titles index of the folded titles, shared with the substring search
+     * @param codes  codes of the same items, null entries match nothing
+     */
+    public FuzzyMatcher(TitleSearchIndex titles, List<? extends CharSequence> codes) {
+        mTitles = titles;
+        mCodes = codes;
+    }
+
+    /**
+     * Folds the titles and the codes if they are not folded yet.
+     */
+    public synchronized void prepare() {
+        mTitles.prepare();
+        if (mFoldedCodes != null) {
+            return;
+        }
+        mFoldedCodes = FoldedColumn.of(mCodes, false);
+        mCodes = null;
+    }
+
+    /**
+     * @param query tokens separated by spaces, folded before matching
+     * @param limit maximum number of results
+     * @param token cancellation token checked while searching, may be null
+     * @return the best matches by decreasing score then list order, or null if token was cancelled
+     */
+    public Matches search(String query, int limit, CancellationToken token) {
+        prepare();
+        String[] tokens = tokenize(TextNormalizer.fold(query));
+        int size = mTitles.size();
+        if (tokens.length == 0 || limit <= 0) {
+            return new Matches(new int[0], new int[0]);
+        }
+
+        FoldedColumn titles = mTitles.getFoldedTitles();
+        FoldedColumn.Value title = null;
+        FoldedColumn.Value code = null;
+        /* min-heap of (score << 32 | ~position), the root is the worst kept result */
+        long[] heap = new long[Math.min(limit, size)];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if ((i & CANCEL_CHECK_MASK) == 0 && token != null && token.isCancelled()) {
+                return null;
+            }
+            title = titles.view(i, title);
+            code = mFoldedCodes.view(i, code);
+            int score = score(tokens, title, code);
+            if (score <= 0) {
+                continue;
+            }
+            long key = ((long) score << 32) | (0xFFFFFFFFL & ~i);
+            if (count < heap.length) {
+                heap[count] = key;
+                siftUp(heap, count++);
+            } else if (key > heap[0]) {
+                heap[0] = key;
+                siftDown(heap, 0, count);
+            }
+        }
+
+        Arrays.sort(heap, 0, count);
+        int[] positions = new int[count];
+        int[] scores = new int[count];
+        for (int k = 0; k < count; k++) {
+            long key = heap[count - 1 - k];
+            positions[k] = ~(int) key;
+            scores[k] = (int) (key >>> 32);
+        }
+        return new Matches(positions, scores, size);
+    }
+
+    /**
+     * @return the score of a folded title and code for the tokens, 0 if a token does not match
+     */
+    static int score(String[] tokens, CharSequence title, CharSequence code) {
+        int total = 0;
+        for (int t = 0; t < tokens.length; t++) {
+            int best = scoreToken(tokens[t], title, code, t == 0);
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private static int scoreToken(String token, CharSequence title, CharSequence code, boolean first) {
+        if (code.length() > 0 && startsWith(code, token, 0)) {
+            return code.length() == token.length() ? SCORE_CODE : SCORE_CODE_PREFIX;
+        }
+        int best = 0;
+        int length = title.length();
+        int start = 0;
+        while (start < length && best < SCORE_WORD) {
+            while (start < length && !Character.isLetterOrDigit(title.charAt(start))) {
+                start++;
+            }
+            int end = start;
+            while (end < length && Character.isLetterOrDigit(title.charAt(end))) {
+                end++;
+            }
+            if (end > start) {
+                int score = scoreWord(token, title, start, end);
+                if (first && start == 0 && score >= SCORE_WORD_PREFIX) {
+                    score += FIRST_WORD_BONUS;
+                }
+                best = Math.max(best, score);
+            }
+            start = end;
+        }
+        if (best < SCORE_SUBSTRING && contains(title, token)) {
+            best = SCORE_SUBSTRING;
+        }
+        return best;
+    }
+
+    private static int scoreWord(String token, CharSequence title, int start, int end) {
+        int wordLength = end - start;
+        int tokenLength = token.length();
+        if (tokenLength <= wordLength && startsWith(title, token, start)) {
+            return tokenLength == wordLength ? SCORE_WORD : SCORE_WORD_PREFIX;
+        }
+        if (title.charAt(start) == token.charAt(0) && isSubsequence(token, title, start, end)) {
+            return SCORE_SUBSEQUENCE;
+        }
+        if (tokenLength >= MIN_TYPO_LENGTH) {
+            /* the word itself, or a prefix of the word one character shorter or longer than the token */
+            for (int prefix = tokenLength - 1; prefix <= tokenLength + 1; prefix++) {
+                if (prefix <= wordLength && withinOneEdit(token, title, start, start + prefix)) {
+                    return SCORE_TYPO;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static boolean isSubsequence(String token, CharSequence title, int start, int end) {
+        int t = 0;
+        for (int i = start; i < end && t < token.length(); i++) {
+            if (title.charAt(i) == token.charAt(t)) {
+                t++;
+            }
+        }
+        return t == token.length();
+    }
+
+    /**
+     * @return true if token and title[start, end) are at most one insertion, deletion,
+     * substitution or transposition apart
+     */
+    static boolean withinOneEdit(String token, CharSequence title, int start, int end) {
+        int m = token.length();
+        int n = end - start;
+        if (Math.abs(m - n) > 1) {
+            return false;
+        }
+        int i = 0;
+        while (i < m && i < n && token.charAt(i) == title.charAt(start + i)) {
+            i++;
+        }
+        if (i == m || i == n) {
+            return true;
+        }
+        if (m == n) {
+            /* substitution, or transposition of i and i + 1 */
+            if (regionEquals(token, i + 1, title, start + i + 1, m - i - 1)) {
+                return true;
+            }
+            return i + 1 < m && token.charAt(i) == title.charAt(start + i + 1)
+                    && token.charAt(i + 1) == title.charAt(start + i)
+                    && regionEquals(token, i + 2, title, start + i + 2, m - i - 2);
+        }
+        return m > n
+                ? regionEquals(token, i + 1, title, start + i, n - i)
+                : regionEquals(token, i, title, start + i + 1, m - i);
+    }
+
+    private static boolean regionEquals(String a, int aStart, CharSequence b, int bStart, int length) {
+        for (int k = 0; k < length; k++) {
+            if (a.charAt(aStart + k) != b.charAt(bStart + k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean startsWith(CharSequence value, String prefix, int start) {
+        return start + prefix.length() <= value.length() && regionEquals(prefix, 0, value, start, prefix.length());
+    }
+
+    private static boolean contains(CharSequence value, String token) {
+        for (int start = 0; start + token.length() <= value.length(); start++) {
+            if (regionEquals(token, 0, value, start, token.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String[] tokenize(String folded) {
+        String trimmed = folded.trim();
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("\\s+");
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        long key = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= key) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = key;
+    }
+
+    private static void siftDown(long[] heap, int index, int count) {
+        long key = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= count) {
+                break;
+            }
+            if (child + 1 < count && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (key <= heap[child]) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = key;
+    }
+
+    /**
+     * Result of a search.
+     */
+    public static class Matches {
+
+        private final int[] mPositions;
+        private final int[] mScores;
+        private final int mScannedCount;
+
+        /**
+         * @param positions list positions of the matches, in display order
+         * @param scores    scores of the matches, null when they are not ranked
+         */
+        public Matches(int[] positions, int[] scores) {
+            this(positions, scores, positions.length);
+        }
+
+        /**
+         * @param scannedCount number of items compared with the query
+         */
+        public Matches(int[] positions, int[] scores, int scannedCount) {
+            mPositions = positions;
+            mScores = scores;
+            mScannedCount = scannedCount;
+        }
+
+        public int getScannedCount() {
+            return mScannedCount;
+        }
+
+        /**
+         * @return the list positions of the matches, best first
+         */
+        public int[] getPositions() {
+            return mPositions;
+        }
+
+        /**
+         * @return the scores of the matches, in the order of {@link #getPositions()}, null when they are not ranked
+         */
+        public int[] getScores() {
+            return mScores;
+        }
+    }
+}
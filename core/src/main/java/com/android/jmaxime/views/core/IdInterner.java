@@ -0,0 +1,40 @@
+package com.android.jmaxime.views.core;
+
+import java.util.HashMap;
+
+/**
+ * Assigns a distinct 64-bit id to every string id it is given, for the lifetime of the interner.
+ * Unlike a hash of the string, two different ids can never share the same number.
+ * <p>
+ * Not thread safe, meant to be used from the main thread by an adapter with stable ids.
+ */
+public class IdInterner {
+
+    /**
+     * Reserved id of a row without item, such as the empty choice
+     */
+    public static final long EMPTY_ID = 0;
+
+    private final HashMap<String, Long> mIds = new HashMap<>();
+    private long mNextId = EMPTY_ID + 1;
+
+    /**
+     * @param id string id, null for a row without item
+     * @return the number of this id, {@link #EMPTY_ID} for null
+     */
+    public long intern(String id) {
+        if (id == null) {
+            return EMPTY_ID;
+        }
+        Long value = mIds.get(id);
+        if (value == null) {
+            value = mNextId++;
+            mIds.put(id, value);
+        }
+        return value;
+    }
+
+    public int size() {
+        return mIds.size();
+    }
+}
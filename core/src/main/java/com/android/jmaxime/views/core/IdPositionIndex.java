@@ -0,0 +1,154 @@
+package com.android.jmaxime.views.core;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Constant time lookup of the position of an item id, in a list and in a filtered view of it.
+ * <p>
+ * Ids are hashed once into an open addressing table of positions : the table holds no id, a lookup
+ * compares the candidates of the same hash with the ids list, so the index of a compact column
+ * such as {@link CompactCatalog#getIds()} adds no string per item. The filtered view is described by the
+ * ascending positions of its items in the list; its reverse lookup is a stamped array, so
+ * changing the filter costs O(filtered size) and never clears the whole table.
+ * When an id appears several times, its first position is indexed.
+ */
+public class IdPositionIndex {
+
+    private final List<? extends CharSequence> mIds;
+    private final int mSize;
+    /* position + 1 of the id of each slot, 0 for an empty slot, and the hash of this id */
+    private final int[] mPositions;
+    private final int[] mHashes;
+    private int mNullPosition = -1;
+
+    /* filtered position of the list position p is mFilteredIndex[p] when mFilteredStamp[p] == mStamp */
+    private int[] mFilteredPositions;
+    private int[] mFilteredStamp;
+    private int[] mFilteredIndex;
+    private int mStamp;
+
+    /**
+     * @param ids ids of the items, null entries are allowed; kept and read again by the lookups,
+     *            so the list must not change
+     */
+    public IdPositionIndex(List<? extends CharSequence> ids) {
+        mIds = ids;
+        mSize = ids.size();
+        int capacity = Integer.highestOneBit(Math.max(4, mSize * 2 - 1)) << 1;
+        mPositions = new int[capacity];
+        mHashes = new int[capacity];
+        for (int p = 0; p < mSize; p++) {
+            CharSequence id = ids.get(p);
+            if (id == null) {
+                if (mNullPosition < 0) {
+                    mNullPosition = p;
+                }
+                continue;
+            }
+            int h = hash(id);
+            int i = find(id, h);
+            if (mPositions[i] == 0) {
+                mPositions[i] = p + 1;
+                mHashes[i] = h;
+            }
+        }
+    }
+
+    /**
+     * @param id item id, may be null
+     * @return the position of this id in the list, or -1
+     */
+    public int getPosition(String id) {
+        if (id == null) {
+            return mNullPosition;
+        }
+        return mPositions[find(id, hash(id))] - 1;
+    }
+
+    /**
+     * @return the slot of id, or the empty slot where it would be added
+     */
+    private int find(CharSequence id, int h) {
+        int mask = mPositions.length - 1;
+        int i = h & mask;
+        while (mPositions[i] != 0 && (mHashes[i] != h || !contentEquals(mIds.get(mPositions[i] - 1), id))) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    /**
+     * Describes the filtered view.
+     *
+     * @param positions list positions of the filtered items in display order, or null when nothing is filtered out
+     */
+    public void setFiltered(int[] positions) {
+        mFilteredPositions = positions;
+        if (positions == null) {
+            return;
+        }
+        if (mFilteredStamp == null) {
+            mFilteredStamp = new int[mSize];
+            mFilteredIndex = new int[mSize];
+        }
+        if (++mStamp == 0) {
+            Arrays.fill(mFilteredStamp, 0);
+            mStamp = 1;
+        }
+        for (int k = 0; k < positions.length; k++) {
+            mFilteredStamp[positions[k]] = mStamp;
+            mFilteredIndex[positions[k]] = k;
+        }
+    }
+
+    /**
+     * @param id item id, may be null
+     * @return the position of this id in the filtered view, or -1
+     */
+    public int getFilteredPosition(String id) {
+        return toFilteredPosition(getPosition(id));
+    }
+
+    /**
+     * @param position position in the list
+     * @return the position of this item in the filtered view, or -1 if it is filtered out
+     */
+    public int toFilteredPosition(int position) {
+        if (position < 0 || mFilteredPositions == null) {
+            return position;
+        }
+        return mFilteredStamp[position] == mStamp ? mFilteredIndex[position] : -1;
+    }
+
+    /**
+     * @return the spread {@link String#hashCode()} of key, computed without creating a string
+     */
+    private static int hash(CharSequence key) {
+        int h = 0;
+        if (key instanceof String) {
+            h = key.hashCode();
+        } else {
+            for (int i = 0; i < key.length(); i++) {
+                h = 31 * h + key.charAt(i);
+            }
+        }
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean contentEquals(CharSequence a, CharSequence b) {
+        if (a instanceof String) {
+            return ((String) a).contentEquals(b);
+        }
+        if (a.length() != b.length()) {
+            return false;
+        }
+        for (int i = 0; i < a.length(); i++) {
+            if (a.charAt(i) != b.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
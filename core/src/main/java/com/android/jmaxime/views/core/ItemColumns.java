@@ -0,0 +1,27 @@
+package com.android.jmaxime.views.core;
+
+import java.util.List;
+
+/**
+ * Column view of a list of items : the titles, codes and ids of the items, readable without
+ * creating the items. Lists implementing it are indexed and filtered through their columns.
+ *
+ * @see CompactCatalog
+ */
+public interface ItemColumns {
+
+    /**
+     * @return the titles, in list order
+     */
+    List<? extends CharSequence> getTitles();
+
+    /**
+     * @return the codes, in list order
+     */
+    List<? extends CharSequence> getCodes();
+
+    /**
+     * @return the ids, in list order
+     */
+    List<? extends CharSequence> getIds();
+}
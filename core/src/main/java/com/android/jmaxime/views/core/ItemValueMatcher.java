@@ -0,0 +1,61 @@
+package com.android.jmaxime.views.core;
+
+import com.android.jmaxime.views.interfaces.SpinnerItemComparableValue;
+import com.android.jmaxime.views.interfaces.SpinnerItemMatchKeys;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Default value matching : index of the {@link SpinnerItemMatchKeys} keys, and positions of the
+ * {@link SpinnerItemComparableValue} items without keys, asked one by one.
+ */
+public class ItemValueMatcher {
+
+    private final MatchKeyIndex mIndex = new MatchKeyIndex();
+    private int[] mFallbackPositions = new int[0];
+
+    /**
+     * The items of an {@link ItemColumns} list are not created to look for their keys, it has none.
+     */
+    public static ItemValueMatcher of(List<?> items) {
+        ItemValueMatcher matcher = new ItemValueMatcher();
+        if (items instanceof ItemColumns) {
+            return matcher;
+        }
+        int fallbacks = 0;
+        for (int i = 0; i < items.size(); i++) {
+            Object item = items.get(i);
+            if (item instanceof SpinnerItemMatchKeys) {
+                for (String key : ((SpinnerItemMatchKeys) item).getMatchKeys()) {
+                    matcher.mIndex.add(key, i);
+                }
+            } else if (item instanceof SpinnerItemComparableValue) {
+                if (fallbacks == matcher.mFallbackPositions.length) {
+                    matcher.mFallbackPositions = Arrays.copyOf(matcher.mFallbackPositions, Math.max(8, fallbacks * 2));
+                }
+                matcher.mFallbackPositions[fallbacks++] = i;
+            }
+        }
+        matcher.mFallbackPositions = Arrays.copyOf(matcher.mFallbackPositions, fallbacks);
+        return matcher;
+    }
+
+    /**
+     * @param items the list the matcher was built from
+     * @return the position of the first item matching value, or -1
+     */
+    public int find(List<?> items, String value) {
+        int position = mIndex.getPosition(value);
+        for (int i = 0; i < mFallbackPositions.length; i++) {
+            int fallback = mFallbackPositions[i];
+            if (position >= 0 && fallback > position) {
+                break;
+            }
+            if (((SpinnerItemComparableValue) items.get(fallback)).isMatchValue(value)) {
+                return fallback;
+            }
+        }
+        return position;
+    }
+}
@@ -0,0 +1,36 @@
+package com.android.jmaxime.views.core;
+
+import java.util.HashMap;
+
+/**
+ * Folded match key to position index, see {@link TextNormalizer#fold(CharSequence)}.
+ * When several positions share a key, the first one added wins.
+ */
+public class MatchKeyIndex {
+
+    private final HashMap<String, Integer> mPositions = new HashMap<>();
+
+    /**
+     * @param key      match key, folded before being indexed
+     * @param position position of the item
+     */
+    public void add(CharSequence key, int position) {
+        String folded = TextNormalizer.fold(key);
+        if (!mPositions.containsKey(folded)) {
+            mPositions.put(folded, position);
+        }
+    }
+
+    /**
+     * @param value value to match, folded before the lookup
+     * @return the position of the item having this key, or -1
+     */
+    public int getPosition(CharSequence value) {
+        Integer position = mPositions.get(TextNormalizer.fold(value));
+        return position != null ? position : -1;
+    }
+
+    public boolean isEmpty() {
+        return mPositions.isEmpty();
+    }
+}
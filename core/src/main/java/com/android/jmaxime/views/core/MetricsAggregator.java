@@ -0,0 +1,174 @@
+package com.android.jmaxime.views.core;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * {@link ViewsMetrics.Listener} summing the measures in primitive counters, without allocating
+ * on the reporting threads. {@link #snapshot(boolean)} copies them for a telemetry.
+ */
+public class MetricsAggregator implements ViewsMetrics.Listener {
+
+    private static final int FILTERS = 0;
+    private static final int FILTER_NANOS = 1;
+    private static final int ROWS_SCANNED = 2;
+    private static final int ROWS_MATCHED = 3;
+    private static final int CHOICES = 4;
+    private static final int CHOICE_NANOS = 5;
+    private static final int CHOICE_ROWS = 6;
+    private static final int REBINDS = 7;
+    private static final int ROWS_REBOUND = 8;
+    private static final int CREATES = 9;
+    private static final int CREATE_NANOS = 10;
+    private static final int BINDS = 11;
+    private static final int BIND_NANOS = 12;
+    private static final int PARTIAL_BINDS = 13;
+    private static final int DRAWABLE_UPDATES = 14;
+    private static final int COUNTERS = 15;
+
+    private final AtomicLongArray mCounters = new AtomicLongArray(COUNTERS);
+
+    @Override
+    public void onFilter(long durationNanos, int scannedRows, int matchedRows) {
+        mCounters.incrementAndGet(FILTERS);
+        mCounters.addAndGet(FILTER_NANOS, durationNanos);
+        mCounters.addAndGet(ROWS_SCANNED, scannedRows);
+        mCounters.addAndGet(ROWS_MATCHED, matchedRows);
+    }
+
+    @Override
+    public void onChoicesSet(long durationNanos, int rows) {
+        mCounters.incrementAndGet(CHOICES);
+        mCounters.addAndGet(CHOICE_NANOS, durationNanos);
+        mCounters.addAndGet(CHOICE_ROWS, rows);
+    }
+
+    @Override
+    public void onRowsRebound(int rows) {
+        mCounters.incrementAndGet(REBINDS);
+        mCounters.addAndGet(ROWS_REBOUND, rows);
+    }
+
+    @Override
+    public void onViewHolderCreated(long durationNanos) {
+        mCounters.incrementAndGet(CREATES);
+        mCounters.addAndGet(CREATE_NANOS, durationNanos);
+    }
+
+    @Override
+    public void onViewHolderBound(long durationNanos, boolean partial) {
+        mCounters.incrementAndGet(partial ? PARTIAL_BINDS : BINDS);
+        mCounters.addAndGet(BIND_NANOS, durationNanos);
+    }
+
+    @Override
+    public void onDrawableUpdated() {
+        mCounters.incrementAndGet(DRAWABLE_UPDATES);
+    }
+
+    /**
+     * @param reset true to restart the counters from 0, for periodic reports
+     * @return the counters since the creation or the last reset
+     */
+    public Snapshot snapshot(boolean reset) {
+        long[] values = new long[COUNTERS];
+        for (int i = 0; i < COUNTERS; i++) {
+            values[i] = reset ? mCounters.getAndSet(i, 0) : mCounters.get(i);
+        }
+        return new Snapshot(values);
+    }
+
+    /**
+     * Counters of a {@link MetricsAggregator} at a point in time.
+     */
+    public static class Snapshot {
+
+        private final long[] mValues;
+
+        Snapshot(long[] values) {
+            mValues = values;
+        }
+
+        public long getFilterCount() {
+            return mValues[FILTERS];
+        }
+
+        public long getFilterNanos() {
+            return mValues[FILTER_NANOS];
+        }
+
+        public long getRowsScanned() {
+            return mValues[ROWS_SCANNED];
+        }
+
+        public long getRowsMatched() {
+            return mValues[ROWS_MATCHED];
+        }
+
+        public long getChoicesSetCount() {
+            return mValues[CHOICES];
+        }
+
+        public long getChoicesSetNanos() {
+            return mValues[CHOICE_NANOS];
+        }
+
+        public long getChoicesSetRows() {
+            return mValues[CHOICE_ROWS];
+        }
+
+        /**
+         * @return the number of adapter notifications followed by binds
+         */
+        public long getReboundCount() {
+            return mValues[REBINDS];
+        }
+
+        public long getRowsRebound() {
+            return mValues[ROWS_REBOUND];
+        }
+
+        public long getViewHolderCreateCount() {
+            return mValues[CREATES];
+        }
+
+        public long getViewHolderCreateNanos() {
+            return mValues[CREATE_NANOS];
+        }
+
+        /**
+         * @return the number of full binds
+         */
+        public long getViewHolderBindCount() {
+            return mValues[BINDS];
+        }
+
+        /**
+         * @return the number of selection-only binds
+         */
+        public long getViewHolderPartialBindCount() {
+            return mValues[PARTIAL_BINDS];
+        }
+
+        /**
+         * @return the time spent in full and selection-only binds
+         */
+        public long getViewHolderBindNanos() {
+            return mValues[BIND_NANOS];
+        }
+
+        public long getDrawableUpdateCount() {
+            return mValues[DRAWABLE_UPDATES];
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot{filters=" + getFilterCount() + ", filterNanos=" + getFilterNanos()
+                    + ", scanned=" + getRowsScanned() + ", matched=" + getRowsMatched()
+                    + ", choicesSet=" + getChoicesSetCount() + ", choicesSetNanos=" + getChoicesSetNanos()
+                    + ", rebinds=" + getReboundCount() + ", rowsRebound=" + getRowsRebound()
+                    + ", creates=" + getViewHolderCreateCount() + ", createNanos=" + getViewHolderCreateNanos()
+                    + ", binds=" + getViewHolderBindCount() + ", partialBinds=" + getViewHolderPartialBindCount()
+                    + ", bindNanos=" + getViewHolderBindNanos() + ", drawableUpdates=" + getDrawableUpdateCount() + "}";
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.android.jmaxime.views.core;
+
+import java.util.BitSet;
+
+/**
+ * Multiple selection over the positions of a list, stored as a bitset : one bit per item
+ * whatever the number of selected items, and word-at-a-time bulk operations.
+ * <p>
+ * Bulk operations take the ascending positions of a filtered view of the list, or null for
+ * the whole list, so that "select all" can be applied to the items matching a filter only.
+ */
+public class MultiSelection {
+
+    private final BitSet mBits;
+    private final int mSize;
+
+    /**
+     * @param size number of items of the list
+     */
+    public MultiSelection(int size) {
+        mSize = size;
+        mBits = new BitSet(size);
+    }
+
+    public int size() {
+        return mSize;
+    }
+
+    public boolean isSelected(int position) {
+        return mBits.get(position);
+    }
+
+    public void setSelected(int position, boolean selected) {
+        mBits.set(position, selected);
+    }
+
+    public void toggle(int position) {
+        mBits.flip(position);
+    }
+
+    /**
+     * @param positions ascending positions of the items to select, null for all the items
+     */
+    public void selectAll(int[] positions) {
+        if (positions == null) {
+            mBits.set(0, mSize);
+            return;
+        }
+        for (int position : positions) {
+            mBits.set(position);
+        }
+    }
+
+    /**
+     * @param positions ascending positions of the items to invert, null for all the items
+     */
+    public void invert(int[] positions) {
+        if (positions == null) {
+            mBits.flip(0, mSize);
+            return;
+        }
+        for (int position : positions) {
+            mBits.flip(position);
+        }
+    }
+
+    public void clear() {
+        mBits.clear();
+    }
+
+    /**
+     * @return the number of selected items
+     */
+    public int count() {
+        return mBits.cardinality();
+    }
+
+    /**
+     * @return the ascending positions of the selected items
+     */
+    public int[] getSelectedPositions() {
+        int[] positions = new int[mBits.cardinality()];
+        int k = 0;
+        for (int p = mBits.nextSetBit(0); p >= 0; p = mBits.nextSetBit(p + 1)) {
+            positions[k++] = p;
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,99 @@
+package com.android.jmaxime.views.core;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used cache of filter results, keyed by folded query.
+ * <p>
+ * The cache is bounded both by its number of entries and by the total number of positions
+ * it holds, so the results of very broad queries over large lists cannot pin too much memory.
+ * Hit and miss counters survive {@link #clear()} so they can be used to tune the size.
+ */
+public class QueryResultCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 32;
+    public static final int DEFAULT_MAX_POSITIONS = 1 << 20;
+
+    private final LinkedHashMap<String, int[]> mEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private int mMaxEntries;
+    private int mMaxPositions;
+    private int mPositions;
+    private int mHitCount;
+    private int mMissCount;
+
+    public QueryResultCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_POSITIONS);
+    }
+
+    /**
+     * @param maxEntries   maximum number of cached queries, 0 disables the cache
+     * @param maxPositions maximum number of positions held by all the cached results
+     */
+    public QueryResultCache(int maxEntries, int maxPositions) {
+        mMaxEntries = maxEntries;
+        mMaxPositions = maxPositions;
+    }
+
+    /**
+     * @param foldedQuery folded query
+     * @return the cached result of this query, or null; counts a hit or a miss
+     */
+    public synchronized int[] get(String foldedQuery) {
+        int[] result = mEntries.get(foldedQuery);
+        if (result != null) {
+            mHitCount++;
+        } else {
+            mMissCount++;
+        }
+        return result;
+    }
+
+    public synchronized void put(String foldedQuery, int[] result) {
+        if (mMaxEntries <= 0 || result.length > mMaxPositions) {
+            return;
+        }
+        int[] previous = mEntries.put(foldedQuery, result);
+        mPositions += result.length - (previous != null ? previous.length : 0);
+        trim();
+    }
+
+    /**
+     * Changes the bounds of the cache, evicting the least recently used results if needed.
+     */
+    public synchronized void setMaxSize(int maxEntries, int maxPositions) {
+        mMaxEntries = maxEntries;
+        mMaxPositions = maxPositions;
+        trim();
+    }
+
+    /**
+     * Removes every cached result, the counters are kept.
+     */
+    public synchronized void clear() {
+        mEntries.clear();
+        mPositions = 0;
+    }
+
+    public synchronized int getHitCount() {
+        return mHitCount;
+    }
+
+    public synchronized int getMissCount() {
+        return mMissCount;
+    }
+
+    public synchronized void resetCounters() {
+        mHitCount = 0;
+        mMissCount = 0;
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<String, int[]>> eldest = mEntries.entrySet().iterator();
+        while (eldest.hasNext() && (mEntries.size() > mMaxEntries || mPositions > mMaxPositions)) {
+            mPositions -= eldest.next().getValue().length;
+            eldest.remove();
+        }
+    }
+}
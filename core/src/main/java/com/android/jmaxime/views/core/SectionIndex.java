@@ -0,0 +1,141 @@
+package com.android.jmaxime.views.core;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Alphabetical sections of a list of titles, for a fast-scroll index.
+ * <p>
+ * A section is a run of consecutive titles starting with the same folded letter, titles
+ * starting with a digit or a symbol belong to the "#" section. The sections are computed in
+ * one pass over the first character of each title, the lookups are binary searches. On a list
+ * which is not sorted by title, a letter can appear in several sections.
+ */
+public class SectionIndex {
+
+    public static final String OTHER_SECTION = "#";
+
+    private static final SectionIndex EMPTY = new SectionIndex(new String[0], new int[0], 0);
+
+    private final String[] mLabels;
+    /* first position of each section, ascending */
+    private final int[] mStarts;
+    private final int mCount;
+
+    private SectionIndex(String[] labels, int[] starts, int count) {
+        mLabels = labels;
+        mStarts = starts;
+        mCount = count;
+    }
+
+    /**
+     * @param titles titles in display order, null entries belong to the "#" section
+     * @return the sections of titles
+     */
+    public static SectionIndex of(List<? extends CharSequence> titles) {
+        int count = titles.size();
+        if (count == 0) {
+            return EMPTY;
+        }
+        String[] labels = new String[16];
+        int[] starts = new int[16];
+        int sections = 0;
+        char current = 0;
+        for (int i = 0; i < count; i++) {
+            char label = labelOf(titles.get(i));
+            if (sections == 0 || label != current) {
+                if (sections == labels.length) {
+                    labels = Arrays.copyOf(labels, sections * 2);
+                    starts = Arrays.copyOf(starts, sections * 2);
+                }
+                labels[sections] = String.valueOf(label);
+                starts[sections] = i;
+                sections++;
+                current = label;
+            }
+        }
+        return new SectionIndex(Arrays.copyOf(labels, sections), Arrays.copyOf(starts, sections), count);
+    }
+
+    /**
+     * @return the uppercase folded first letter of title, or '#'
+     */
+    static char labelOf(CharSequence title) {
+        if (title == null) {
+            return '#';
+        }
+        for (int i = 0; i < title.length(); i++) {
+            char c = title.charAt(i);
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            if (c >= 'a' && c <= 'z') {
+                return (char) (c - 'a' + 'A');
+            }
+            if (c >= 'A' && c <= 'Z') {
+                return c;
+            }
+            if (c < 128 || !Character.isLetter(c)) {
+                return '#';
+            }
+            String folded = TextNormalizer.fold(String.valueOf(c));
+            char f = folded.isEmpty() ? c : folded.charAt(0);
+            return f >= 'a' && f <= 'z' ? (char) (f - 'a' + 'A') : Character.toUpperCase(f);
+        }
+        return '#';
+    }
+
+    /**
+     * @return the number of titles
+     */
+    public int getItemCount() {
+        return mCount;
+    }
+
+    public int getSectionCount() {
+        return mLabels.length;
+    }
+
+    /**
+     * @return the labels of the sections, in display order
+     */
+    public String[] getLabels() {
+        return mLabels;
+    }
+
+    /**
+     * @param section section index, clamped to the sections
+     * @return the first position of the section, -1 if there is no section
+     */
+    public int getPositionForSection(int section) {
+        if (mStarts.length == 0) {
+            return -1;
+        }
+        return mStarts[Math.max(0, Math.min(section, mStarts.length - 1))];
+    }
+
+    /**
+     * @param position position of a title, clamped to the titles
+     * @return the section containing the position, -1 if there is no section
+     */
+    public int getSectionForPosition(int position) {
+        if (mStarts.length == 0) {
+            return -1;
+        }
+        int found = Arrays.binarySearch(mStarts, Math.max(0, Math.min(position, mCount - 1)));
+        return found >= 0 ? found : -found - 2;
+    }
+
+    /**
+     * @param label section label, for example "S"
+     * @return the first section with this label, -1 if there is none
+     */
+    public int getSectionForLabel(String label) {
+        for (int i = 0; i < mLabels.length; i++) {
+            if (mLabels[i].equals(label)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,65 @@
+package com.android.jmaxime.views.core;
+
+import java.text.Normalizer;
+
+/**
+ * Case and accent folding used by the search indexes : "Été" and "ETE" both fold to "ete".
+ */
+public final class TextNormalizer {
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * @param value value to fold, may be null
+     * @return the lower-case value without diacritics, "" for null
+     */
+    public static String fold(CharSequence value) {
+        if (value == null) {
+            return "";
+        }
+        final int length = value.length();
+        StringBuilder builder = null;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                return foldUnicode(value);
+            }
+            char folded = c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+            if (folded != c && builder == null) {
+                builder = new StringBuilder(length).append(value, 0, i);
+            }
+            if (builder != null) {
+                builder.append(folded);
+            }
+        }
+        return builder != null ? builder.toString() : value.toString();
+    }
+
+    private static String foldUnicode(CharSequence value) {
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        StringBuilder builder = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            switch (c) {
+                case 'œ':
+                case 'Œ':
+                    builder.append("oe");
+                    break;
+                case 'æ':
+                case 'Æ':
+                    builder.append("ae");
+                    break;
+                case 'ß':
+                    builder.append("ss");
+                    break;
+                default:
+                    builder.append(Character.toLowerCase(c));
+            }
+        }
+        return builder.toString();
+    }
+}
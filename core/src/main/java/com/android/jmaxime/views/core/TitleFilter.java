@@ -0,0 +1,61 @@
+package com.android.jmaxime.views.core;
+
+/**
+ * Type-ahead front of a {@link TitleSearchIndex}.
+ * <p>
+ * A query containing the previous one can only match a subset of the previous result,
+ * so it is verified against that result instead of the whole index. Results are also
+ * kept in a {@link QueryResultCache} so going back to an earlier query costs nothing.
+ */
+public class TitleFilter {
+
+    private final TitleSearchIndex mIndex;
+    private final QueryResultCache mCache;
+    private String mLastQuery;
+    private int[] mLastResult;
+    private int mLastScanned;
+
+    /**
+     * @param index index to search
+     * @param cache cache of the results, must be cleared when the indexed titles change
+     */
+    public TitleFilter(TitleSearchIndex index, QueryResultCache cache) {
+        mIndex = index;
+        mCache = cache;
+    }
+
+    public TitleSearchIndex getIndex() {
+        return mIndex;
+    }
+
+    /**
+     * @return the number of titles compared by the last {@link #filter(String, CancellationToken)}, 0 for a cached result
+     */
+    public synchronized int getLastScannedCount() {
+        return mLastScanned;
+    }
+
+    /**
+     * @param query query, folded before matching
+     * @param token cancellation token checked while searching, may be null
+     * @return the ascending positions of the titles containing query, or null if token was cancelled.
+     * The returned array is shared with the cache and must not be modified.
+     */
+    public synchronized int[] filter(String query, CancellationToken token) {
+        String folded = TextNormalizer.fold(query);
+        int[] result = mCache.get(folded);
+        mLastScanned = 0;
+        if (result == null) {
+            int[] within = mLastQuery != null && folded.contains(mLastQuery) ? mLastResult : null;
+            result = mIndex.searchFolded(folded, within, token);
+            if (result == null) {
+                return null;
+            }
+            mLastScanned = mIndex.mScanned;
+            mCache.put(folded, result);
+        }
+        mLastQuery = folded;
+        mLastResult = result;
+        return result;
+    }
+}
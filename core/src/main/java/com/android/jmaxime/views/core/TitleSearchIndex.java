@@ -0,0 +1,277 @@
+package com.android.jmaxime.views.core;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Substring search index over a list of titles.
+ * <p>
+ * Titles are folded once with {@link TextNormalizer#fold(CharSequence)} into a single arena,
+ * searched in place, and every trigram
+ * of the folded titles is posted to the ascending positions of the titles containing it.
+ * A query of three characters or more only verifies the titles posted under its rarest
+ * trigram, shorter queries scan the folded titles. A search can also be narrowed to the
+ * result of a previous, less specific, query.
+ * <p>
+ * The index is built lazily, on the first call to {@link #prepare()} or to a search,
+ * so it can be created on the main thread and built on a worker thread.
+ */
+public class TitleSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final int CANCEL_CHECK_MASK = 0xFF;
+
+    private List<? extends CharSequence> mTitles;
+    private final int mSize;
+    private FoldedColumn mFolded;
+    private TrigramTable mTrigrams;
+    /* postings of the trigram slot s are mPostings[mOffsets[s]..mOffsets[s + 1]) */
+    private int[] mOffsets;
+    private int[] mPostings;
+    /* titles compared by the last searchFolded call, read under the lock of the caller */
+    int mScanned;
+
+    /**
+     * @param titles titles to index, read once when the index is built; null entries are indexed as ""
+     */
+    public TitleSearchIndex(List<? extends CharSequence> titles) {
+        mTitles = titles;
+        mSize = titles.size();
+    }
+
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * Builds the index if it is not built yet.
+     */
+    public synchronized void prepare() {
+        if (mFolded != null) {
+            return;
+        }
+        FoldedColumn folded = FoldedColumn.of(mTitles, false);
+
+        TrigramTable trigrams = new TrigramTable();
+        int[] counts = new int[64];
+        int[] lastPosition = new int[64];
+        Arrays.fill(lastPosition, -1);
+        for (int i = 0; i < mSize; i++) {
+            int end = folded.start(i) + folded.length(i);
+            for (int k = folded.start(i); k + GRAM <= end; k++) {
+                int slot = trigrams.getOrAdd(key(folded, k));
+                if (slot == counts.length) {
+                    counts = Arrays.copyOf(counts, slot * 2);
+                    lastPosition = Arrays.copyOf(lastPosition, slot * 2);
+                    Arrays.fill(lastPosition, slot, lastPosition.length, -1);
+                }
+                if (lastPosition[slot] != i) {
+                    lastPosition[slot] = i;
+                    counts[slot]++;
+                }
+            }
+        }
+
+        int slots = trigrams.size();
+        int[] offsets = new int[slots + 1];
+        for (int s = 0; s < slots; s++) {
+            offsets[s + 1] = offsets[s] + counts[s];
+        }
+        int[] postings = new int[offsets[slots]];
+        int[] cursor = Arrays.copyOf(offsets, slots);
+        Arrays.fill(lastPosition, -1);
+        for (int i = 0; i < mSize; i++) {
+            int end = folded.start(i) + folded.length(i);
+            for (int k = folded.start(i); k + GRAM <= end; k++) {
+                int slot = trigrams.get(key(folded, k));
+                if (lastPosition[slot] != i) {
+                    lastPosition[slot] = i;
+                    postings[cursor[slot]++] = i;
+                }
+            }
+        }
+
+        mTrigrams = trigrams;
+        mOffsets = offsets;
+        mPostings = postings;
+        mFolded = folded;
+        mTitles = null;
+    }
+
+    /**
+     * @param position position of the title
+     * @return the folded title at this position, as a new string
+     */
+    public String getFoldedTitle(int position) {
+        prepare();
+        return mFolded.get(position);
+    }
+
+    /**
+     * @return the folded titles, searched in place
+     */
+    FoldedColumn getFoldedTitles() {
+        prepare();
+        return mFolded;
+    }
+
+    /**
+     * @param query substring to search, folded before matching
+     * @param token cancellation token checked while searching, may be null
+     * @return the ascending positions of the titles containing query, or null if token was cancelled
+     */
+    public int[] search(String query, CancellationToken token) {
+        return searchFolded(TextNormalizer.fold(query), null, token);
+    }
+
+    /**
+     * @param folded already folded query
+     * @param within ascending positions known to contain every match (the result of a query
+     *               contained in this one), or null to search the whole index
+     * @param token  cancellation token checked while searching, may be null
+     * @return the ascending positions of the titles containing folded, or null if token was cancelled
+     */
+    int[] searchFolded(String folded, int[] within, CancellationToken token) {
+        prepare();
+        if (folded.length() < GRAM) {
+            mScanned = within != null ? within.length : mSize;
+            return within != null ? verify(folded, within, 0, within.length, token) : scan(folded, token);
+        }
+
+        int rarest = -1;
+        for (int k = 0; k + GRAM <= folded.length(); k++) {
+            int slot = mTrigrams.get(key(folded, k));
+            if (slot < 0) {
+                mScanned = 0;
+                return new int[0];
+            }
+            if (rarest < 0 || length(slot) < length(rarest)) {
+                rarest = slot;
+            }
+        }
+
+        if (within != null && within.length <= length(rarest)) {
+            mScanned = within.length;
+            return verify(folded, within, 0, within.length, token);
+        }
+        mScanned = length(rarest);
+        return verify(folded, mPostings, mOffsets[rarest], mOffsets[rarest + 1], token);
+    }
+
+    private int[] verify(String folded, int[] candidates, int from, int to, CancellationToken token) {
+        int[] result = new int[to - from];
+        int count = 0;
+        for (int p = from; p < to; p++) {
+            if (((p - from) & CANCEL_CHECK_MASK) == 0 && token != null && token.isCancelled()) {
+                return null;
+            }
+            int position = candidates[p];
+            if (mFolded.contains(position, folded)) {
+                result[count++] = position;
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    private int[] scan(String folded, CancellationToken token) {
+        int[] result = new int[mSize];
+        int count = 0;
+        for (int i = 0; i < mSize; i++) {
+            if ((i & CANCEL_CHECK_MASK) == 0 && token != null && token.isCancelled()) {
+                return null;
+            }
+            if (mFolded.contains(i, folded)) {
+                result[count++] = i;
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    private int length(int slot) {
+        return mOffsets[slot + 1] - mOffsets[slot];
+    }
+
+    private static long key(FoldedColumn column, int index) {
+        return ((long) column.charAt(index) << 32)
+                | ((long) column.charAt(index + 1) << 16)
+                | column.charAt(index + 2);
+    }
+
+    private static long key(String value, int index) {
+        return ((long) value.charAt(index) << 32)
+                | ((long) value.charAt(index + 1) << 16)
+                | value.charAt(index + 2);
+    }
+
+    /**
+     * Open addressing map of trigram keys to dense slot numbers.
+     */
+    private static final class TrigramTable {
+
+        private long[] mKeys = new long[128];
+        private int[] mSlots = new int[128];
+        private int mSize;
+
+        TrigramTable() {
+            Arrays.fill(mSlots, -1);
+        }
+
+        int size() {
+            return mSize;
+        }
+
+        int get(long key) {
+            int mask = mKeys.length - 1;
+            for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+                if (mSlots[i] < 0) {
+                    return -1;
+                }
+                if (mKeys[i] == key) {
+                    return mSlots[i];
+                }
+            }
+        }
+
+        int getOrAdd(long key) {
+            int mask = mKeys.length - 1;
+            for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+                if (mSlots[i] < 0) {
+                    mKeys[i] = key;
+                    mSlots[i] = mSize++;
+                    if (mSize * 2 > mKeys.length) {
+                        grow();
+                    }
+                    return mSize - 1;
+                }
+                if (mKeys[i] == key) {
+                    return mSlots[i];
+                }
+            }
+        }
+
+        private void grow() {
+            long[] keys = mKeys;
+            int[] slots = mSlots;
+            mKeys = new long[keys.length * 2];
+            mSlots = new int[slots.length * 2];
+            Arrays.fill(mSlots, -1);
+            int mask = mKeys.length - 1;
+            for (int j = 0; j < keys.length; j++) {
+                if (slots[j] < 0) {
+                    continue;
+                }
+                int i = hash(keys[j]) & mask;
+                while (mSlots[i] >= 0) {
+                    i = (i + 1) & mask;
+                }
+                mKeys[i] = keys[j];
+                mSlots[i] = slots[j];
+            }
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
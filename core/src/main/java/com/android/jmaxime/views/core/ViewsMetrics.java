@@ -0,0 +1,113 @@
+package com.android.jmaxime.views.core;
+
+/**
+ * Entry point of the performance metrics of the library.
+ * <p>
+ * The views and adapters report to a single {@link Listener}, a no-op one by default : while no
+ * listener is installed they do not even read the clock. Install a {@link MetricsAggregator}
+ * to get counters which can be forwarded as snapshots to any telemetry.
+ */
+public final class ViewsMetrics {
+
+    public static final Listener NONE = new Listener() {
+        @Override
+        public void onFilter(long durationNanos, int scannedRows, int matchedRows) {
+        }
+
+        @Override
+        public void onChoicesSet(long durationNanos, int rows) {
+        }
+
+        @Override
+        public void onRowsRebound(int rows) {
+        }
+
+        @Override
+        public void onViewHolderCreated(long durationNanos) {
+        }
+
+        @Override
+        public void onViewHolderBound(long durationNanos, boolean partial) {
+        }
+
+        @Override
+        public void onDrawableUpdated() {
+        }
+    };
+
+    private static volatile Listener sListener = NONE;
+
+    private ViewsMetrics() {
+    }
+
+    /**
+     * @param listener listener of the metrics, null to stop reporting them
+     */
+    public static void setListener(Listener listener) {
+        sListener = listener != null ? listener : NONE;
+    }
+
+    public static Listener getListener() {
+        return sListener;
+    }
+
+    /**
+     * @return true if a listener is installed, false if the measures can be skipped
+     */
+    public static boolean isEnabled() {
+        return sListener != NONE;
+    }
+
+    /**
+     * @return the current time to measure a duration with {@link #since(long)}, 0 when no listener is installed
+     */
+    public static long start() {
+        return sListener != NONE ? System.nanoTime() : 0;
+    }
+
+    /**
+     * @param start value returned by {@link #start()}
+     * @return the nanoseconds elapsed since start
+     */
+    public static long since(long start) {
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Receives the measures, on the thread which made them (usually the main thread).
+     * Implementations must be cheap and must not allocate.
+     */
+    public interface Listener {
+
+        /**
+         * A filter query was published.
+         *
+         * @param durationNanos time from the query to its publication
+         * @param scannedRows   rows compared with the query
+         * @param matchedRows   rows kept
+         */
+        void onFilter(long durationNanos, int scannedRows, int matchedRows);
+
+        /**
+         * A list of choices was set and indexed.
+         */
+        void onChoicesSet(long durationNanos, int rows);
+
+        /**
+         * @param rows rows bound after an adapter notification
+         */
+        void onRowsRebound(int rows);
+
+        void onViewHolderCreated(long durationNanos);
+
+        /**
+         * @param partial true for a selection-only bind
+         */
+        void onViewHolderBound(long durationNanos, boolean partial);
+
+        /**
+         * A compound drawable of a view was changed.
+         */
+        void onDrawableUpdated();
+    }
+}
@@ -0,0 +1,24 @@
+package com.android.jmaxime.views.interfaces;
+
+/**
+ * Indexed companion of {@link SpinnerItemComparableValue}.
+ * <p>
+ * Instead of testing a default value against every item, the adapter indexes the match keys
+ * of all the items when the list is set and resolves the default value with a single lookup.
+ * Keys and values are compared case and accent insensitive.
+ *
+ * <code>
+ *     String[] getMatchKeys(){<br/>
+ *         return new String[]{ "Bj", "Bonjour" };<br/>
+ *     }
+ * </code>
+ *
+ * @link SpinnerItemComparableValue
+ */
+public interface SpinnerItemMatchKeys {
+
+    /**
+     * @return the values matching this item, never null
+     */
+    String[] getMatchKeys();
+}
@@ -0,0 +1,160 @@
+package com.android.jmaxime.views;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import com.android.jmaxime.views.interfaces.SpinnerDialogItem;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the time to hand a large item list to a dialog through its arguments,
+ * parceled in full or through a {@link SpinnerItemRegistry} handle.
+ * <p>
+ * The arguments go through a {@link Parcel} as they would through Binder when the dialog is shown.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SpinnerItemRegistryBenchmark {
+
+    private static final String TAG = "RegistryBenchmark";
+    private static final String KEY = "items";
+    private static final int ITEMS = 10000;
+    private static final int RUNS = 15;
+
+    @Test
+    public void openLatency() throws Exception {
+        Context context = InstrumentationRegistry.getTargetContext();
+        ArrayList<BenchItem> items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(new BenchItem("id-" + i, "CODE" + i, "Article de randonnée numéro " + i));
+        }
+
+        long[] parceled = new long[RUNS];
+        long[] registered = new long[RUNS];
+        int parceledBytes = 0;
+        int registeredBytes = 0;
+        for (int run = 0; run < RUNS; run++) {
+            long start = SystemClock.elapsedRealtimeNanos();
+            Bundle arguments = new Bundle();
+            arguments.putParcelableArrayList(KEY, items);
+            Bundle received = transfer(arguments);
+            List<BenchItem> list = received.getParcelableArrayList(KEY);
+            parceled[run] = SystemClock.elapsedRealtimeNanos() - start;
+            parceledBytes = sizeOf(arguments);
+            assertEquals(ITEMS, list.size());
+
+            start = SystemClock.elapsedRealtimeNanos();
+            arguments = new Bundle();
+            SpinnerItemRegistry.putItems(context, arguments, KEY, items);
+            received = transfer(arguments);
+            list = SpinnerItemRegistry.getItems(context, received, KEY);
+            registered[run] = SystemClock.elapsedRealtimeNanos() - start;
+            registeredBytes = sizeOf(arguments);
+            assertEquals(ITEMS, list.size());
+            SpinnerItemRegistry.release(context, received, KEY);
+        }
+
+        long parceledMedian = median(parceled);
+        long registeredMedian = median(registered);
+        Log.i(TAG, ITEMS + " items, full parceling : " + parceledMedian / 1000 + " us, " + parceledBytes + " bytes");
+        Log.i(TAG, ITEMS + " items, registry handle : " + registeredMedian / 1000 + " us, " + registeredBytes + " bytes");
+        assertTrue(registeredMedian < parceledMedian);
+        assertTrue(registeredBytes < 1024);
+    }
+
+    private static Bundle transfer(Bundle bundle) {
+        Parcel parcel = Parcel.obtain();
+        try {
+            parcel.writeBundle(bundle);
+            byte[] bytes = parcel.marshall();
+            parcel.unmarshall(bytes, 0, bytes.length);
+            parcel.setDataPosition(0);
+            Bundle received = parcel.readBundle(BenchItem.class.getClassLoader());
+            received.size();
+            return received;
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    private static int sizeOf(Bundle bundle) {
+        Parcel parcel = Parcel.obtain();
+        try {
+            parcel.writeBundle(bundle);
+            return parcel.dataSize();
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    static class BenchItem implements SpinnerDialogItem {
+
+        public static final Parcelable.Creator<BenchItem> CREATOR = new Parcelable.Creator<BenchItem>() {
+            @Override
+            public BenchItem createFromParcel(Parcel in) {
+                return new BenchItem(in.readString(), in.readString(), in.readString());
+            }
+
+            @Override
+            public BenchItem[] newArray(int size) {
+                return new BenchItem[size];
+            }
+        };
+
+        private final String mId;
+        private final String mCode;
+        private final String mTitle;
+
+        BenchItem(String id, String code, String title) {
+            mId = id;
+            mCode = code;
+            mTitle = title;
+        }
+
+        @Override
+        public String getTitle() {
+            return mTitle;
+        }
+
+        @Override
+        public String getCode() {
+            return mCode;
+        }
+
+        @Override
+        public String getId() {
+            return mId;
+        }
+
+        @Override
+        public int describeContents() {
+            return 0;
+        }
+
+        @Override
+        public void writeToParcel(Parcel dest, int flags) {
+            dest.writeString(mId);
+            dest.writeString(mCode);
+            dest.writeString(mTitle);
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.android.jmaxime.views;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.drawable.Drawable;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextDirectionHeuristics;
+import android.text.TextPaint;
+import android.text.TextUtils;
+import android.util.AttributeSet;
+import android.view.View;
+import android.view.accessibility.AccessibilityEvent;
+import android.view.accessibility.AccessibilityNodeInfo;
+import android.widget.Checkable;
+import android.widget.CheckedTextView;
+
+/**
+ * Single-view row of the spinner lists : draws its title and its check mark itself, without
+ * the nested layout and the text measure of a CheckedTextView.
+ * <p>
+ * The title is drawn from a {@link Layout} which can be built ahead of time on a background thread
+ * with {@link #createTitleLayout(CharSequence, TextPaint, int, boolean)}, for the paint, the width
+ * and the direction returned by {@link #getTitlePaint()}, {@link #getTitleWidth()} and
+ * {@link #isTitleRtl()} once the row is measured. When no ready-made layout is given, it is built
+ * during the measure. The check mark is drawn at the end of the row, on the left in a right-to-left layout.
+ * <p>
+ * Supports android:checkMark (defaults to ?android:attr/listChoiceIndicatorSingle),
+ * android:checkMarkTint and android:textAppearance, whose text color may depend on the state
+ * of the row : a title drawn in another color than the default one gets its own layout.
+ */
+public class CheckedTitleRowView extends View implements Checkable {
+
+    private static final int[] CHECKED_STATE_SET = {android.R.attr.state_checked};
+
+    /* paint of the layouts, with the default text color */
+    private final TextPaint mTitlePaint = new TextPaint(TextPaint.ANTI_ALIAS_FLAG);
+    private ColorStateList mTextColor;
+    private int mTitleColor;
+    private CharSequence mTitle;
+    private Layout mTitleLayout;
+    /* layout of the title in mTitleColor when it is not the default color, built when drawn */
+    private Layout mStateLayout;
+    private TextPaint mStatePaint;
+    private int mTitleWidth;
+    /* direction the title layouts were built for */
+    private boolean mTitleRtl;
+    private Drawable mCheckMark;
+    private ColorStateList mCheckMarkTint;
+    private int mCheckMarkPadding;
+    private boolean mChecked;
+
+    public CheckedTitleRowView(Context context) {
+        this(context, null);
+    }
+
+    public CheckedTitleRowView(Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public CheckedTitleRowView(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        mCheckMarkPadding = Math.round(16 * getResources().getDisplayMetrics().density);
+
+        TypedArray a = context.obtainStyledAttributes(attrs, new int[]{android.R.attr.textAppearance});
+        int textAppearance = a.getResourceId(0, 0);
+        a.recycle();
+        if (textAppearance == 0) {
+            a = context.obtainStyledAttributes(new int[]{android.R.attr.textAppearanceMedium});
+            textAppearance = a.getResourceId(0, 0);
+            a.recycle();
+        }
+        a = context.obtainStyledAttributes(textAppearance, new int[]{android.R.attr.textSize, android.R.attr.textColor});
+        mTitlePaint.setTextSize(a.getDimension(0, 16 * getResources().getDisplayMetrics().scaledDensity));
+        mTextColor = a.getColorStateList(1);
+        mTitleColor = mTextColor != null ? mTextColor.getDefaultColor() : 0xDE000000;
+        mTitlePaint.setColor(mTitleColor);
+        a.recycle();
+
+        a = context.obtainStyledAttributes(attrs, new int[]{android.R.attr.checkMarkTint});
+        mCheckMarkTint = a.getColorStateList(0);
+        a.recycle();
+        a = context.obtainStyledAttributes(attrs, new int[]{android.R.attr.checkMark});
+        Drawable checkMark = a.getDrawable(0);
+        a.recycle();
+        if (checkMark == null) {
+            a = context.obtainStyledAttributes(new int[]{android.R.attr.listChoiceIndicatorSingle});
+            checkMark = a.getDrawable(0);
+            a.recycle();
+        }
+        setCheckMarkDrawable(checkMark);
+    }
+
+    /**
+     * @return a left-to-right layout of text, see {@link #createTitleLayout(CharSequence, TextPaint, int, boolean)}
+     */
+    public static Layout createTitleLayout(CharSequence text, TextPaint paint, int width) {
+        return createTitleLayout(text, paint, width, false);
+    }
+
+    /**
+     * @param rtl true for a row laid out from right to left, the text without strong direction is then aligned on the right
+     * @return a layout of text for {@link #setTitle(CharSequence, Layout)}, can be called on any thread
+     * with a paint which is not modified anymore
+     */
+    public static Layout createTitleLayout(CharSequence text, TextPaint paint, int width, boolean rtl) {
+        return StaticLayout.Builder.obtain(text, 0, text.length(), paint, Math.max(width, 0))
+                .setTextDirection(rtl ? TextDirectionHeuristics.FIRSTSTRONG_RTL : TextDirectionHeuristics.FIRSTSTRONG_LTR)
+                .build();
+    }
+
+    /**
+     * @param title  title of the row
+     * @param layout layout of title built with {@link #createTitleLayout(CharSequence, TextPaint, int, boolean)}
+     *               for the current paint, width and direction of the row; null or out of date to build it when needed
+     */
+    public void setTitle(CharSequence title, Layout layout) {
+        if (layout != null && (layout.getWidth() != mTitleWidth || !TextUtils.equals(layout.getText(), title)
+                || layout.getPaint().getColor() != mTitlePaint.getColor())) {
+            layout = null;
+        }
+        int oldHeight = mTitleLayout != null ? mTitleLayout.getHeight() : -1;
+        mTitle = title;
+        mTitleLayout = layout;
+        mStateLayout = null;
+        if (layout == null || layout.getHeight() != oldHeight) {
+            requestLayout();
+        }
+        invalidate();
+    }
+
+    public CharSequence getTitle() {
+        return mTitle;
+    }
+
+    /**
+     * @return the paint the title layouts are built with, with the default text color, must not be modified
+     */
+    public TextPaint getTitlePaint() {
+        return mTitlePaint;
+    }
+
+    /**
+     * @return the width available to the title, 0 until the row is measured
+     */
+    public int getTitleWidth() {
+        return mTitleWidth;
+    }
+
+    /**
+     * @return true if the row is laid out from right to left, with its check mark on the left; false until the row is measured
+     */
+    public boolean isTitleRtl() {
+        return mTitleRtl;
+    }
+
+    public void setCheckMarkDrawable(Drawable checkMark) {
+        if (checkMark == mCheckMark) {
+            return;
+        }
+        if (mCheckMark != null) {
+            mCheckMark.setCallback(null);
+            unscheduleDrawable(mCheckMark);
+        }
+        if (checkMark != null) {
+            if (mCheckMarkTint != null) {
+                checkMark = checkMark.mutate();
+                checkMark.setTintList(mCheckMarkTint);
+            }
+            checkMark.setCallback(this);
+            checkMark.setVisible(getVisibility() == VISIBLE, false);
+            checkMark.setState(getDrawableState());
+        }
+        mCheckMark = checkMark;
+        requestLayout();
+        invalidate();
+    }
+
+    public Drawable getCheckMarkDrawable() {
+        return mCheckMark;
+    }
+
+    @Override
+    public void setChecked(boolean checked) {
+        if (checked != mChecked) {
+            mChecked = checked;
+            refreshDrawableState();
+        }
+    }
+
+    @Override
+    public boolean isChecked() {
+        return mChecked;
+    }
+
+    @Override
+    public void toggle() {
+        setChecked(!mChecked);
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = MeasureSpec.getSize(widthMeasureSpec);
+        int checkWidth = mCheckMark != null ? mCheckMark.getIntrinsicWidth() + mCheckMarkPadding : 0;
+        int titleWidth = Math.max(0, width - getPaddingLeft() - getPaddingRight() - checkWidth);
+        boolean rtl = getLayoutDirection() == LAYOUT_DIRECTION_RTL;
+        if (titleWidth != mTitleWidth || rtl != mTitleRtl) {
+            mTitleWidth = titleWidth;
+            mTitleRtl = rtl;
+            mTitleLayout = null;
+            mStateLayout = null;
+        }
+        if (mTitleLayout == null && mTitle != null) {
+            mTitleLayout = createTitleLayout(mTitle, mTitlePaint, titleWidth, rtl);
+        }
+        int titleHeight = mTitleLayout != null ? mTitleLayout.getHeight() : 0;
+        int checkHeight = mCheckMark != null ? mCheckMark.getIntrinsicHeight() : 0;
+        int height = Math.max(titleHeight, checkHeight) + getPaddingTop() + getPaddingBottom();
+        setMeasuredDimension(width, resolveSize(Math.max(height, getSuggestedMinimumHeight()), heightMeasureSpec));
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        int contentTop = getPaddingTop();
+        int contentHeight = getHeight() - getPaddingTop() - getPaddingBottom();
+        boolean rtl = mTitleRtl;
+        int checkWidth = mCheckMark != null ? mCheckMark.getIntrinsicWidth() : 0;
+        if (mTitleLayout == null && mTitle != null) {
+            mTitleLayout = createTitleLayout(mTitle, mTitlePaint, mTitleWidth, rtl);
+        }
+        Layout layout = getDrawnLayout(rtl);
+        if (layout != null) {
+            canvas.save();
+            canvas.translate(rtl ? getWidth() - getPaddingRight() - mTitleWidth : getPaddingLeft(),
+                    contentTop + (contentHeight - layout.getHeight()) / 2);
+            layout.draw(canvas);
+            canvas.restore();
+        }
+        if (mCheckMark != null) {
+            int left = rtl ? getPaddingLeft() : getWidth() - getPaddingRight() - checkWidth;
+            int top = contentTop + (contentHeight - mCheckMark.getIntrinsicHeight()) / 2;
+            mCheckMark.setBounds(left, top, left + checkWidth, top + mCheckMark.getIntrinsicHeight());
+            mCheckMark.draw(canvas);
+        }
+    }
+
+    /**
+     * @return the title layout in the color of the current state
+     */
+    private Layout getDrawnLayout(boolean rtl) {
+        if (mTitleLayout == null || mTitleColor == mTitlePaint.getColor()) {
+            return mTitleLayout;
+        }
+        if (mStateLayout == null) {
+            if (mStatePaint == null) {
+                mStatePaint = new TextPaint(mTitlePaint);
+            }
+            mStatePaint.setColor(mTitleColor);
+            mStateLayout = createTitleLayout(mTitle, mStatePaint, mTitleWidth, rtl);
+        }
+        return mStateLayout;
+    }
+
+    @Override
+    protected int[] onCreateDrawableState(int extraSpace) {
+        int[] state = super.onCreateDrawableState(extraSpace + 1);
+        if (mChecked) {
+            mergeDrawableStates(state, CHECKED_STATE_SET);
+        }
+        return state;
+    }
+
+    @Override
+    protected void drawableStateChanged() {
+        super.drawableStateChanged();
+        if (mCheckMark != null && mCheckMark.isStateful() && mCheckMark.setState(getDrawableState())) {
+            invalidateDrawable(mCheckMark);
+        }
+        if (mTextColor != null && mTextColor.isStateful()) {
+            int color = mTextColor.getColorForState(getDrawableState(), mTextColor.getDefaultColor());
+            if (color != mTitleColor) {
+                mTitleColor = color;
+                mStateLayout = null;
+                invalidate();
+            }
+        }
+    }
+
+    @Override
+    protected boolean verifyDrawable(Drawable who) {
+        return who == mCheckMark || super.verifyDrawable(who);
+    }
+
+    @Override
+    public void jumpDrawablesToCurrentState() {
+        super.jumpDrawablesToCurrentState();
+        if (mCheckMark != null) {
+            mCheckMark.jumpToCurrentState();
+        }
+    }
+
+    @Override
+    public void onInitializeAccessibilityEvent(AccessibilityEvent event) {
+        super.onInitializeAccessibilityEvent(event);
+        event.setChecked(mChecked);
+    }
+
+    @Override
+    public void onPopulateAccessibilityEvent(AccessibilityEvent event) {
+        super.onPopulateAccessibilityEvent(event);
+        if (!TextUtils.isEmpty(mTitle)) {
+            event.getText().add(mTitle);
+        }
+    }
+
+    @Override
+    public void onInitializeAccessibilityNodeInfo(AccessibilityNodeInfo info) {
+        super.onInitializeAccessibilityNodeInfo(info);
+        info.setCheckable(true);
+        info.setChecked(mChecked);
+        info.setText(mTitle);
+    }
+
+    @Override
+    public CharSequence getAccessibilityClassName() {
+        return CheckedTextView.class.getName();
+    }
+}
@@ -9,7 +9,9 @@ import android.support.v7.widget.AppCompatEditText;
 import android.text.TextUtils;
 import android.util.AttributeSet;
 
-import com.android.jmaxime.views.adapters.DrawableClickListener;
+import com.android.jmaxime.views.adapters.CompoundDrawableClickListener;
+import com.android.jmaxime.views.core.CancellationToken;
+import com.android.jmaxime.views.core.ViewsMetrics;
 
 /**
  * @author Maxime Jallu
@@ -20,6 +22,25 @@ import com.android.jmaxime.views.adapters.DrawableClickListener;
  */
 public class EditTextClearOption extends AppCompatEditText {
 
+    public static final long DEFAULT_QUERY_DEBOUNCE = 300;
+
+    /* loaded once, the same instance is shown each time the text becomes non-empty */
+    private Drawable mClearDrawable;
+    private boolean mClearVisible;
+    private CompoundDrawableClickListener mClearListener;
+
+    /* search field mode */
+    private OnQueryChangeListener mQueryListener;
+    private long mQueryDebounce = DEFAULT_QUERY_DEBOUNCE;
+    private String mLastQuery;
+    private CancellationToken mQueryToken;
+    private final Runnable mEmitQuery = new Runnable() {
+        @Override
+        public void run() {
+            emitQuery();
+        }
+    };
+
     public EditTextClearOption(Context context) {
         super(context);
     }
@@ -36,16 +57,78 @@ public class EditTextClearOption extends AppCompatEditText {
     protected void onTextChanged(CharSequence text, int start, int lengthBefore, int lengthAfter) {
         super.onTextChanged(text, start, lengthBefore, lengthAfter);
         if (!isInEditMode()) {
-            Drawable d = null;
-            if (text.length() > 0) {
-                d = DrawableCompat.wrap(ContextCompat.getDrawable(getContext(), R.drawable.ic_close_black_24dp));
-                initListenerDrawableClick();
-            }
-            this.setCompoundDrawablesWithIntrinsicBounds(
-                    getDrawablePosition(0),
-                    getDrawablePosition(1),
-                    d,
-                    getDrawablePosition(3));
+            setClearVisible(text.length() > 0);
+        }
+        if (mQueryListener != null) {
+            onQueryTextChanged(text);
+        }
+    }
+
+    @Override
+    public void onEditorAction(int actionCode) {
+        super.onEditorAction(actionCode);
+        if (mQueryListener != null) {
+            removeCallbacks(mEmitQuery);
+            emitQuery();
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        removeCallbacks(mEmitQuery);
+    }
+
+    /**
+     * Search field mode : the text changes are sent to listener once the text has not changed
+     * for {@link #DEFAULT_QUERY_DEBOUNCE} ms, see {@link #setOnQueryChangeListener(OnQueryChangeListener, long)}
+     *
+     * @param listener listener of the queries, null to leave the search field mode
+     */
+    public void setOnQueryChangeListener(OnQueryChangeListener listener) {
+        setOnQueryChangeListener(listener, DEFAULT_QUERY_DEBOUNCE);
+    }
+
+    /**
+     * Search field mode : a burst of text changes is coalesced into its latest value, sent to
+     * listener once the text has not changed for debounceMillis. The query is sent at once on
+     * an IME action or when the field is cleared. A value equal to the last sent query is not sent again.
+     *
+     * @param listener       listener of the queries, null to leave the search field mode
+     * @param debounceMillis quiet time before sending a query
+     */
+    public void setOnQueryChangeListener(OnQueryChangeListener listener, long debounceMillis) {
+        removeCallbacks(mEmitQuery);
+        mQueryListener = listener;
+        mQueryDebounce = debounceMillis;
+        mLastQuery = null;
+        cancelQueryToken();
+    }
+
+    private void onQueryTextChanged(CharSequence text) {
+        removeCallbacks(mEmitQuery);
+        if (text.length() == 0) {
+            emitQuery();
+        } else {
+            postDelayed(mEmitQuery, mQueryDebounce);
+        }
+    }
+
+    private void emitQuery() {
+        String query = getTextValue();
+        if (mQueryListener == null || query.equals(mLastQuery)) {
+            return;
+        }
+        cancelQueryToken();
+        mLastQuery = query;
+        mQueryToken = new CancellationToken();
+        mQueryListener.onQueryChange(query, mQueryToken);
+    }
+
+    private void cancelQueryToken() {
+        if (mQueryToken != null) {
+            mQueryToken.cancel();
+            mQueryToken = null;
         }
     }
 
@@ -53,26 +136,50 @@ public class EditTextClearOption extends AppCompatEditText {
     public void setEnabled(boolean enabled) {
         super.setEnabled(enabled);
         if (!enabled) {
-            this.setCompoundDrawablesWithIntrinsicBounds(
-                    getDrawablePosition(0),
-                    getDrawablePosition(1),
-                    null,
-                    getDrawablePosition(3));
+            setClearVisible(false);
+        }
+    }
+
+    /**
+     * Shows or hides the clear drawable, only when the visibility really changes
+     * since replacing the compound drawables requests a layout.
+     */
+    private void setClearVisible(boolean visible) {
+        if (visible == mClearVisible) {
+            return;
+        }
+        mClearVisible = visible;
+        Drawable[] drawables = getCompoundDrawables();
+        this.setCompoundDrawablesWithIntrinsicBounds(
+                drawables[0],
+                drawables[1],
+                visible ? getClearDrawable() : null,
+                drawables[3]);
+        ViewsMetrics.getListener().onDrawableUpdated();
+        if (visible && mClearListener == null) {
+            initListenerDrawableClick();
         }
     }
 
-    private Drawable getDrawablePosition(int position) {
-        return getCompoundDrawables()[position];
+    private Drawable getClearDrawable() {
+        if (mClearDrawable == null) {
+            mClearDrawable = DrawableCompat.wrap(ContextCompat.getDrawable(getContext(), R.drawable.ic_close_black_24dp));
+        }
+        return mClearDrawable;
     }
 
     private void initListenerDrawableClick() {
-        setOnTouchListener(new DrawableClickListener.RightDrawableClickListener(this) {
+        mClearListener = new CompoundDrawableClickListener(this) {
             @Override
-            public boolean onDrawableClick() {
+            public boolean onRightDrawableClick() {
+                if (!mClearVisible) {
+                    return false;
+                }
                 setText("");
                 return true;
             }
-        });
+        };
+        mClearListener.attach();
     }
 
     /**
@@ -106,4 +213,18 @@ public class EditTextClearOption extends AppCompatEditText {
             return getTextValue();
         }
     }
+
+    /**
+     * Listener of the search field mode
+     */
+    public interface OnQueryChangeListener {
+
+        /**
+         * Called on the main thread with the latest query.
+         *
+         * @param query current text of the field
+         * @param token cancelled when a newer query is sent, work done for this one can stop then
+         */
+        void onQueryChange(String query, CancellationToken token);
+    }
 }
@@ -0,0 +1,210 @@
+package com.android.jmaxime.views;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.MotionEvent;
+import android.view.View;
+import android.widget.SectionIndexer;
+
+/**
+ * Vertical alphabetical index of a {@link RecyclerView} whose adapter is a {@link SectionIndexer},
+ * for example a {@link com.android.jmaxime.views.adapters.SpinnerResourceAdapter} in sectioned mode,
+ * with its items sorted by title. The index is drawn again each time the adapter notifies a change.
+ * <p>
+ * Touching a label jumps to the first row of its section with
+ * {@link LinearLayoutManager#scrollToPositionWithOffset(int, int)}, so only the rows
+ * around the destination are bound. When the labels do not fit, one label out of n is drawn
+ * but every section stays reachable.
+ */
+public class FastScrollIndexView extends View {
+
+    private static final float DEFAULT_TEXT_SIZE_SP = 12;
+
+    private final Paint mPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint.FontMetrics mFontMetrics = new Paint.FontMetrics();
+    private final RecyclerView.AdapterDataObserver mObserver = new RecyclerView.AdapterDataObserver() {
+        @Override
+        public void onChanged() {
+            invalidate();
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            invalidate();
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            invalidate();
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            invalidate();
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            invalidate();
+        }
+    };
+
+    private RecyclerView mRecyclerView;
+    private RecyclerView.Adapter<?> mObservedAdapter;
+    private int mTouchedSection = -1;
+
+    public FastScrollIndexView(Context context) {
+        this(context, null);
+    }
+
+    public FastScrollIndexView(Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public FastScrollIndexView(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        mPaint.setTextAlign(Paint.Align.CENTER);
+        mPaint.setColor(Color.GRAY);
+        mPaint.setTextSize(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, DEFAULT_TEXT_SIZE_SP,
+                getResources().getDisplayMetrics()));
+    }
+
+    /**
+     * @param recyclerView list to scroll, its adapter must implement {@link SectionIndexer}; null to detach
+     */
+    public void setRecyclerView(RecyclerView recyclerView) {
+        unobserveAdapter();
+        mRecyclerView = recyclerView;
+        if (isAttachedToWindow()) {
+            observeAdapter();
+        }
+        invalidate();
+    }
+
+    public void setTextColor(int color) {
+        mPaint.setColor(color);
+        invalidate();
+    }
+
+    public void setTextSize(float px) {
+        mPaint.setTextSize(px);
+        requestLayout();
+        invalidate();
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        observeAdapter();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        unobserveAdapter();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = (int) Math.ceil(mPaint.measureText("W")) + getPaddingLeft() + getPaddingRight();
+        setMeasuredDimension(resolveSize(Math.max(width, getSuggestedMinimumWidth()), widthMeasureSpec),
+                getDefaultSize(getSuggestedMinimumHeight(), heightMeasureSpec));
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        Object[] sections = getSections();
+        int count = sections.length;
+        float height = getHeight() - getPaddingTop() - getPaddingBottom();
+        if (count == 0 || height <= 0) {
+            return;
+        }
+        mPaint.getFontMetrics(mFontMetrics);
+        float textHeight = mFontMetrics.descent - mFontMetrics.ascent;
+        float step = height / count;
+        int stride = step >= textHeight ? 1 : (int) Math.ceil(textHeight / step);
+        float x = getPaddingLeft() + (getWidth() - getPaddingLeft() - getPaddingRight()) / 2f;
+        float baseline = getPaddingTop() + step / 2f - (mFontMetrics.ascent + mFontMetrics.descent) / 2f;
+        for (int i = 0; i < count; i += stride) {
+            canvas.drawText(sections[i].toString(), x, baseline + i * step, mPaint);
+        }
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                getParent().requestDisallowInterceptTouchEvent(true);
+                scrollToSection(sectionAt(event.getY()));
+                return true;
+            case MotionEvent.ACTION_MOVE:
+                scrollToSection(sectionAt(event.getY()));
+                return true;
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL:
+                mTouchedSection = -1;
+                return true;
+            default:
+                return super.onTouchEvent(event);
+        }
+    }
+
+    private int sectionAt(float y) {
+        int count = getSections().length;
+        float height = getHeight() - getPaddingTop() - getPaddingBottom();
+        if (count == 0 || height <= 0) {
+            return -1;
+        }
+        int section = (int) ((y - getPaddingTop()) / height * count);
+        return Math.max(0, Math.min(section, count - 1));
+    }
+
+    private void scrollToSection(int section) {
+        if (section < 0 || section == mTouchedSection || !(mRecyclerView.getAdapter() instanceof SectionIndexer)) {
+            return;
+        }
+        mTouchedSection = section;
+        int position = ((SectionIndexer) mRecyclerView.getAdapter()).getPositionForSection(section);
+        RecyclerView.LayoutManager layoutManager = mRecyclerView.getLayoutManager();
+        if (layoutManager instanceof LinearLayoutManager) {
+            ((LinearLayoutManager) layoutManager).scrollToPositionWithOffset(position, 0);
+        } else {
+            mRecyclerView.scrollToPosition(position);
+        }
+    }
+
+    private Object[] getSections() {
+        RecyclerView.Adapter<?> adapter = mRecyclerView != null ? mRecyclerView.getAdapter() : null;
+        if (adapter instanceof SectionIndexer) {
+            Object[] sections = ((SectionIndexer) adapter).getSections();
+            if (sections != null) {
+                return sections;
+            }
+        }
+        return new Object[0];
+    }
+
+    private void observeAdapter() {
+        RecyclerView.Adapter<?> adapter = mRecyclerView != null ? mRecyclerView.getAdapter() : null;
+        if (adapter != mObservedAdapter) {
+            unobserveAdapter();
+            if (adapter != null) {
+                adapter.registerAdapterDataObserver(mObserver);
+                mObservedAdapter = adapter;
+            }
+        }
+    }
+
+    private void unobserveAdapter() {
+        if (mObservedAdapter != null) {
+            mObservedAdapter.unregisterAdapterDataObserver(mObserver);
+            mObservedAdapter = null;
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.android.jmaxime.views;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import com.android.jmaxime.views.interfaces.SpinnerDialogItem;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-local registry of item lists, to hand large lists to a dialog or fragment without
+ * parceling them into its arguments.
+ * <p>
+ * {@link #putItems(Context, Bundle, String, List)} keeps the list in memory and only puts a small
+ * handle in the bundle. In background, the list is also written to a file in the cache directory,
+ * with a single {@link Parcelable.Creator} for all the items, so that it can still be read back by
+ * {@link #getItems(Context, Bundle, String)} when the process was killed and the bundle restored.
+ * Call {@link #release(Context, Bundle, String)} once the list is not needed anymore. The files
+ * left by lists never released are deleted on the first use of the registry in a process, once they
+ * are older than {@link #MAX_FILE_AGE_MILLIS}.
+ */
+public final class SpinnerItemRegistry {
+
+    private static final String TAG = "SpinnerItemRegistry";
+    private static final String DIRECTORY = "spinner_items";
+    /**
+     * Age after which the file of a list is considered abandoned, the saved state holding its handle
+     * is unlikely to be restored anymore
+     */
+    public static final long MAX_FILE_AGE_MILLIS = TimeUnit.DAYS.toMillis(2);
+
+    private static final HashMap<String, List<? extends SpinnerDialogItem>> sLists = new HashMap<>();
+    private static final Executor sWriter = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, TAG);
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    private static boolean sCleaned;
+
+    private SpinnerItemRegistry() {
+    }
+
+    /**
+     * Registers items and puts their handle in bundle.
+     *
+     * @param context context, used for the cache directory
+     * @param bundle  bundle receiving the handle, typically fragment arguments
+     * @param key     key of the handle in bundle
+     * @param items   items to register, all of the same class, must not be modified afterwards
+     * @throws IllegalArgumentException if the items are not all of the same class, they could not be read back
+     */
+    public static <T extends SpinnerDialogItem> void putItems(Context context, Bundle bundle, String key, final List<T> items) {
+        checkSameClass(items);
+        cleanOnce(context);
+        final String handle = UUID.randomUUID().toString();
+        synchronized (sLists) {
+            sLists.put(handle, items);
+        }
+        bundle.putString(key, handle);
+        final File file = getFile(context, handle);
+        sWriter.execute(new Runnable() {
+            @Override
+            public void run() {
+                write(file, items);
+            }
+        });
+    }
+
+    /**
+     * After a process death the items are read back from their file on the calling thread,
+     * use {@link #getItems(Context, Bundle, String, OnItemsLoadedListener)} to read them in background.
+     *
+     * @param context context, used for the cache directory
+     * @param bundle  bundle holding the handle
+     * @param key     key of the handle in bundle
+     * @return the registered items, read back from their file after a process death, or null if unknown
+     */
+    @Nullable
+    public static <T extends SpinnerDialogItem> List<T> getItems(Context context, Bundle bundle, String key) {
+        String handle = bundle != null ? bundle.getString(key) : null;
+        if (handle == null) {
+            return null;
+        }
+        List<T> items = getRegistered(handle);
+        return items != null ? items : SpinnerItemRegistry.<T>readBack(context, handle);
+    }
+
+    /**
+     * Like {@link #getItems(Context, Bundle, String)}, the file of the items is read on a worker thread.
+     * The listener is called on the main thread, right away when the items are in memory.
+     *
+     * @param listener listener receiving the items, or null if unknown
+     */
+    public static <T extends SpinnerDialogItem> void getItems(final Context context, Bundle bundle, String key,
+                                                              final OnItemsLoadedListener<T> listener) {
+        final String handle = bundle != null ? bundle.getString(key) : null;
+        List<T> items = handle != null ? SpinnerItemRegistry.<T>getRegistered(handle) : null;
+        if (handle == null || items != null) {
+            listener.onItemsLoaded(items);
+            return;
+        }
+        final Handler mainHandler = new Handler(Looper.getMainLooper());
+        sWriter.execute(new Runnable() {
+            @Override
+            public void run() {
+                final List<T> items = readBack(context, handle);
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        listener.onItemsLoaded(items);
+                    }
+                });
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends SpinnerDialogItem> List<T> getRegistered(String handle) {
+        synchronized (sLists) {
+            return (List<T>) sLists.get(handle);
+        }
+    }
+
+    private static <T extends SpinnerDialogItem> List<T> readBack(Context context, String handle) {
+        cleanOnce(context);
+        File file = getFile(context, handle);
+        List<T> items = read(context, file);
+        if (items != null) {
+            /* still in use, kept by the cleaning */
+            file.setLastModified(System.currentTimeMillis());
+            synchronized (sLists) {
+                sLists.put(handle, items);
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Forgets the items of this handle and deletes their file.
+     */
+    public static void release(Context context, Bundle bundle, String key) {
+        String handle = bundle != null ? bundle.getString(key) : null;
+        if (handle == null) {
+            return;
+        }
+        synchronized (sLists) {
+            sLists.remove(handle);
+        }
+        final File file = getFile(context, handle);
+        sWriter.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (file.exists() && !file.delete()) {
+                    Log.w(TAG, "unable to delete " + file);
+                }
+            }
+        });
+    }
+
+    /**
+     * Deletes, in background, the files older than {@link #MAX_FILE_AGE_MILLIS} the first time it is called
+     */
+    private static void cleanOnce(Context context) {
+        synchronized (sLists) {
+            if (sCleaned) {
+                return;
+            }
+            sCleaned = true;
+        }
+        final File directory = new File(context.getCacheDir(), DIRECTORY);
+        sWriter.execute(new Runnable() {
+            @Override
+            public void run() {
+                File[] files = directory.listFiles();
+                if (files == null) {
+                    return;
+                }
+                long oldest = System.currentTimeMillis() - MAX_FILE_AGE_MILLIS;
+                for (File file : files) {
+                    if (file.lastModified() < oldest && !file.delete()) {
+                        Log.w(TAG, "unable to delete " + file);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * The items are written with the {@link Parcelable.Creator} of the first one
+     */
+    private static void checkSameClass(List<? extends SpinnerDialogItem> items) {
+        Class<?> itemClass = null;
+        for (int i = 0; i < items.size(); i++) {
+            SpinnerDialogItem item = items.get(i);
+            if (item == null) {
+                continue;
+            }
+            if (itemClass == null) {
+                itemClass = item.getClass();
+            } else if (item.getClass() != itemClass) {
+                throw new IllegalArgumentException("items must all be of the same class, found "
+                        + itemClass.getName() + " and " + item.getClass().getName() + " at " + i);
+            }
+        }
+    }
+
+    private static File getFile(Context context, String handle) {
+        return new File(new File(context.getCacheDir(), DIRECTORY), handle);
+    }
+
+    private static void write(File file, List<? extends SpinnerDialogItem> items) {
+        Parcel parcel = Parcel.obtain();
+        try {
+            SpinnerDialogItem first = null;
+            for (int i = 0; i < items.size() && first == null; i++) {
+                first = items.get(i);
+            }
+            parcel.writeString(first != null ? first.getClass().getName() : null);
+            parcel.writeTypedList(items);
+            File directory = file.getParentFile();
+            if (!directory.exists() && !directory.mkdirs()) {
+                Log.w(TAG, "unable to create " + directory);
+                return;
+            }
+            FileOutputStream out = new FileOutputStream(file);
+            try {
+                out.write(parcel.marshall());
+            } finally {
+                out.close();
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "unable to write " + file, e);
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends SpinnerDialogItem> List<T> read(Context context, File file) {
+        if (!file.exists()) {
+            return null;
+        }
+        Parcel parcel = Parcel.obtain();
+        try {
+            byte[] bytes = new byte[(int) file.length()];
+            FileInputStream in = new FileInputStream(file);
+            try {
+                int read = 0;
+                while (read < bytes.length) {
+                    int count = in.read(bytes, read, bytes.length - read);
+                    if (count < 0) {
+                        return null;
+                    }
+                    read += count;
+                }
+            } finally {
+                in.close();
+            }
+            parcel.unmarshall(bytes, 0, bytes.length);
+            parcel.setDataPosition(0);
+            String className = parcel.readString();
+            if (className == null) {
+                return new ArrayList<>();
+            }
+            Parcelable.Creator<T> creator = (Parcelable.Creator<T>) Class.forName(className, true, context.getClassLoader())
+                    .getField("CREATOR").get(null);
+            return parcel.createTypedArrayList(creator);
+        } catch (IOException | ReflectiveOperationException | RuntimeException e) {
+            Log.w(TAG, "unable to read " + file, e);
+            return null;
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    public interface OnItemsLoadedListener<T extends SpinnerDialogItem> {
+
+        /**
+         * @param items the registered items, or null if unknown
+         */
+        void onItemsLoaded(@Nullable List<T> items);
+    }
+}
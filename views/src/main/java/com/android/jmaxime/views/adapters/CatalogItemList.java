@@ -0,0 +1,80 @@
+package com.android.jmaxime.views.adapters;
+
+import com.android.jmaxime.views.core.CompactCatalog;
+import com.android.jmaxime.views.core.ItemColumns;
+import com.android.jmaxime.views.interfaces.SpinnerDialogItem;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Read-only list of items backed by a {@link CompactCatalog}, for the adapters of very large catalogs.
+ * <p>
+ * {@link SpinnerResourceAdapter} and {@link SpinnerElementAdapter} index and filter it through its
+ * columns, so items are only created for the rows which are bound or selected. The last created
+ * items are kept in a small direct-mapped cache.
+ * <p>
+ * The list cannot be modified : the empty choice of {@link SpinnerResourceAdapter} is rejected
+ * with an {@link IllegalArgumentException}.
+ */
+public class CatalogItemList<T extends SpinnerDialogItem> extends AbstractList<T> implements ItemColumns, RandomAccess {
+
+    private static final int CACHE_SIZE = 256;
+
+    private final CompactCatalog mCatalog;
+    private final ItemFactory<T> mFactory;
+    private final Object[] mCachedItems = new Object[CACHE_SIZE];
+    /* position + 1 of the cached items, 0 for an empty slot */
+    private final int[] mCachedPositions = new int[CACHE_SIZE];
+
+    public CatalogItemList(CompactCatalog catalog, ItemFactory<T> factory) {
+        mCatalog = catalog;
+        mFactory = factory;
+    }
+
+    public CompactCatalog getCatalog() {
+        return mCatalog;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized T get(int position) {
+        int slot = position & (CACHE_SIZE - 1);
+        if (mCachedPositions[slot] == position + 1) {
+            return (T) mCachedItems[slot];
+        }
+        T item = mFactory.create(position, mCatalog.getId(position), mCatalog.getTitle(position), mCatalog.getCode(position));
+        mCachedItems[slot] = item;
+        mCachedPositions[slot] = position + 1;
+        return item;
+    }
+
+    @Override
+    public int size() {
+        return mCatalog.size();
+    }
+
+    @Override
+    public List<? extends CharSequence> getTitles() {
+        return mCatalog.getTitles();
+    }
+
+    @Override
+    public List<? extends CharSequence> getCodes() {
+        return mCatalog.getCodes();
+    }
+
+    @Override
+    public List<? extends CharSequence> getIds() {
+        return mCatalog.getIds();
+    }
+
+    /**
+     * Creates the item of a catalog row when it is needed.
+     */
+    public interface ItemFactory<T extends SpinnerDialogItem> {
+
+        T create(int position, String id, String title, String code);
+    }
+}
@@ -0,0 +1,180 @@
+package com.android.jmaxime.views.adapters;
+
+import android.graphics.drawable.Drawable;
+import android.view.MotionEvent;
+import android.view.View;
+import android.widget.TextView;
+
+/**
+ * Click listener of the four compound drawables of a {@link TextView}.
+ * <p>
+ * Unlike {@link DrawableClickListener}, the drawables are read from the view each time it is
+ * laid out (replacing compound drawables requests a layout), and the hit rectangles are computed
+ * at that time only. A touch event is then a few int comparisons, without any allocation.
+ * Override the callbacks of the sides you are interested in.
+ */
+public class CompoundDrawableClickListener implements View.OnTouchListener, View.OnLayoutChangeListener {
+
+    public static final int LEFT = 0;
+    public static final int TOP = 1;
+    public static final int RIGHT = 2;
+    public static final int BOTTOM = 3;
+    /**
+     * Default number of pixels of &quot;fuzz&quot; around a drawable
+     */
+    public static final int DEFAULT_FUZZ = 10;
+
+    private final TextView mView;
+    private final int mFuzz;
+    /* left, top, right, bottom of the hit rectangle of each side, empty when the side has no drawable */
+    private final int[] mHitRects = new int[4 * 4];
+    private boolean mDirty = true;
+
+    /**
+     * @param view the {@link TextView} whose compound drawables are clicked
+     */
+    public CompoundDrawableClickListener(TextView view) {
+        this(view, DEFAULT_FUZZ);
+    }
+
+    /**
+     * @param view the {@link TextView} whose compound drawables are clicked
+     * @param fuzz number of pixels of &quot;fuzz&quot; included to account for the size of a finger
+     */
+    public CompoundDrawableClickListener(TextView view, int fuzz) {
+        mView = view;
+        mFuzz = fuzz;
+    }
+
+    /**
+     * Installs this listener as the touch listener of the view and starts tracking its layouts.
+     */
+    public void attach() {
+        mView.setOnTouchListener(this);
+        mView.addOnLayoutChangeListener(this);
+        mDirty = true;
+    }
+
+    public void detach() {
+        mView.setOnTouchListener(null);
+        mView.removeOnLayoutChangeListener(this);
+    }
+
+    /**
+     * Forces the hit rectangles to be computed again on the next touch, for drawable changes
+     * which do not lead to a layout (e.g. changing the bounds of a drawable in place).
+     */
+    public void invalidateHitRects() {
+        mDirty = true;
+    }
+
+    @Override
+    public void onLayoutChange(View v, int left, int top, int right, int bottom,
+                               int oldLeft, int oldTop, int oldRight, int oldBottom) {
+        computeHitRects();
+    }
+
+    @Override
+    public boolean onTouch(View v, MotionEvent event) {
+        if (event.getActionMasked() != MotionEvent.ACTION_DOWN) {
+            return false;
+        }
+        if (mDirty) {
+            computeHitRects();
+        }
+        final int x = (int) event.getX();
+        final int y = (int) event.getY();
+        for (int side = LEFT; side <= BOTTOM; side++) {
+            int i = side * 4;
+            if (x >= mHitRects[i] && x <= mHitRects[i + 2] && y >= mHitRects[i + 1] && y <= mHitRects[i + 3]
+                    && onDrawableClick(side)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void computeHitRects() {
+        mDirty = false;
+        final Drawable[] drawables = mView.getCompoundDrawables();
+        final int width = mView.getWidth();
+        final int height = mView.getHeight();
+        final int paddingLeft = mView.getPaddingLeft();
+        final int paddingTop = mView.getPaddingTop();
+        final int paddingRight = mView.getPaddingRight();
+        final int paddingBottom = mView.getPaddingBottom();
+        for (int side = LEFT; side <= BOTTOM; side++) {
+            Drawable drawable = drawables[side];
+            if (drawable == null) {
+                setHitRect(side, 0, 0, -1, -1);
+                continue;
+            }
+            int drawableWidth = drawable.getBounds().width();
+            int drawableHeight = drawable.getBounds().height();
+            switch (side) {
+                case LEFT:
+                    setHitRect(side, paddingLeft, paddingTop, paddingLeft + drawableWidth, height - paddingBottom);
+                    break;
+                case TOP:
+                    setHitRect(side, paddingLeft, paddingTop, width - paddingRight, paddingTop + drawableHeight);
+                    break;
+                case RIGHT:
+                    setHitRect(side, width - paddingRight - drawableWidth, paddingTop, width - paddingRight, height - paddingBottom);
+                    break;
+                default:
+                    setHitRect(side, paddingLeft, height - paddingBottom - drawableHeight, width - paddingRight, height - paddingBottom);
+                    break;
+            }
+        }
+    }
+
+    private void setHitRect(int side, int left, int top, int right, int bottom) {
+        int i = side * 4;
+        boolean empty = right < left;
+        mHitRects[i] = empty ? left : left - mFuzz;
+        mHitRects[i + 1] = empty ? top : top - mFuzz;
+        mHitRects[i + 2] = empty ? right : right + mFuzz;
+        mHitRects[i + 3] = empty ? bottom : bottom + mFuzz;
+    }
+
+    private boolean onDrawableClick(int side) {
+        switch (side) {
+            case LEFT:
+                return onLeftDrawableClick();
+            case TOP:
+                return onTopDrawableClick();
+            case RIGHT:
+                return onRightDrawableClick();
+            default:
+                return onBottomDrawableClick();
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the event is consumed
+     */
+    public boolean onLeftDrawableClick() {
+        return false;
+    }
+
+    /**
+     * @return <code>true</code> if the event is consumed
+     */
+    public boolean onTopDrawableClick() {
+        return false;
+    }
+
+    /**
+     * @return <code>true</code> if the event is consumed
+     */
+    public boolean onRightDrawableClick() {
+        return false;
+    }
+
+    /**
+     * @return <code>true</code> if the event is consumed
+     */
+    public boolean onBottomDrawableClick() {
+        return false;
+    }
+}
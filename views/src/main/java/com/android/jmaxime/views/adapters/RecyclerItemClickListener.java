@@ -7,6 +7,13 @@ public class RecyclerItemClickListener implements RecyclerView.OnChildAttachStat
 
     private final RecyclerView mRecycler;
     private final OnRecyclerOnItemClickListener mListener;
+    /* shared by all the rows, nothing is allocated when a row is attached */
+    private final View.OnClickListener mClickListener = new View.OnClickListener() {
+        @Override
+        public void onClick(View v) {
+            setOnChildAttachedToWindow(v);
+        }
+    };
 
     /**
      * Constructor
@@ -29,15 +36,22 @@ public class RecyclerItemClickListener implements RecyclerView.OnChildAttachStat
         recyclerView.addOnChildAttachStateChangeListener(new RecyclerItemClickListener(recyclerView, listener));
     }
 
+    /**
+     * Add true on Item click with a single touch listener and one click listener shared by the attached views.
+     * Long click, double click and click throttling can be configured on the returned listener.
+     *
+     * @param recyclerView
+     * @param listener
+     * @return the attached touch listener
+     */
+    public static RecyclerItemTouchListener affectOnItemTouch(RecyclerView recyclerView, OnRecyclerOnItemClickListener listener) {
+        return new RecyclerItemTouchListener(recyclerView, listener).attach();
+    }
+
 
     @Override
     public void onChildViewAttachedToWindow(View view) {
-        view.setOnClickListener(new View.OnClickListener() {
-            @Override
-            public void onClick(View v) {
-                setOnChildAttachedToWindow(v);
-            }
-        });
+        view.setOnClickListener(mClickListener);
     }
 
     private void setOnChildAttachedToWindow(View v) {
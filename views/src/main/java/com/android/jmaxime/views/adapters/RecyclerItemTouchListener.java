@@ -0,0 +1,231 @@
+package com.android.jmaxime.views.adapters;
+
+import android.os.SystemClock;
+import android.support.v4.view.GestureDetectorCompat;
+import android.support.v7.widget.RecyclerView;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.View;
+
+/**
+ * Item click, long click and double click of a RecyclerView, with a single gesture detector.
+ * <p>
+ * A single {@link RecyclerView.OnItemTouchListener} feeds a gesture detector and resolves the child
+ * under the touch point. Taps are turned into a {@link View#performClick()} of the row, which
+ * carries a click listener shared by all the rows, so that clicks from a keyboard, a D-pad or an
+ * accessibility service reach the item listener as well, and attaching and recycling rows allocates
+ * nothing. The touch which ends a tap or a long press is kept from the row, so it does not click it twice.
+ * A touch which stops a scrolling list only stops it : no row is clicked, long or double clicked by it.
+ * Repeated clicks can be throttled : a click is dropped while the previous handler runs and during
+ * the throttle window after it.
+ */
+public class RecyclerItemTouchListener implements RecyclerView.OnItemTouchListener,
+        RecyclerView.OnChildAttachStateChangeListener {
+
+    private final RecyclerView mRecycler;
+    private final RecyclerItemClickListener.OnRecyclerOnItemClickListener mClickListener;
+    private final GestureHandler mGestureHandler = new GestureHandler();
+    private final GestureDetectorCompat mGestureDetector;
+    private OnItemLongClickListener mLongClickListener;
+    private OnItemDoubleClickListener mDoubleClickListener;
+    private long mClickThrottle;
+    private long mNextClickTime;
+    private boolean mDispatching;
+    /* row under the last ACTION_DOWN, null when the touch stopped a scroll */
+    private View mTouchedChild;
+    private final View.OnClickListener mRowClickListener = new View.OnClickListener() {
+        @Override
+        public void onClick(View v) {
+            dispatch(GestureHandler.CLICK, v);
+        }
+    };
+
+    /**
+     * Constructor, see {@link #attach()}
+     *
+     * @param recyclerView recycler view whose rows are clicked
+     * @param listener     listener of the item clicks
+     */
+    public RecyclerItemTouchListener(RecyclerView recyclerView, RecyclerItemClickListener.OnRecyclerOnItemClickListener listener) {
+        mRecycler = recyclerView;
+        mClickListener = listener;
+        mGestureDetector = new GestureDetectorCompat(recyclerView.getContext(), mGestureHandler);
+        mGestureDetector.setOnDoubleTapListener(null);
+        mGestureDetector.setIsLongpressEnabled(false);
+    }
+
+    public RecyclerItemTouchListener attach() {
+        mRecycler.addOnItemTouchListener(this);
+        mRecycler.addOnChildAttachStateChangeListener(this);
+        for (int i = 0; i < mRecycler.getChildCount(); i++) {
+            onChildViewAttachedToWindow(mRecycler.getChildAt(i));
+        }
+        return this;
+    }
+
+    public void detach() {
+        mRecycler.removeOnItemTouchListener(this);
+        mRecycler.removeOnChildAttachStateChangeListener(this);
+        for (int i = 0; i < mRecycler.getChildCount(); i++) {
+            onChildViewDetachedFromWindow(mRecycler.getChildAt(i));
+        }
+    }
+
+    @Override
+    public void onChildViewAttachedToWindow(View view) {
+        view.setOnClickListener(mRowClickListener);
+    }
+
+    @Override
+    public void onChildViewDetachedFromWindow(View view) {
+        view.setOnClickListener(null);
+    }
+
+    /**
+     * @param listener listener of the long clicks, null to disable them
+     */
+    public RecyclerItemTouchListener setOnItemLongClickListener(OnItemLongClickListener listener) {
+        mLongClickListener = listener;
+        mGestureDetector.setIsLongpressEnabled(listener != null);
+        return this;
+    }
+
+    /**
+     * When a double click listener is set, a single click is only dispatched once the double tap timeout is over.
+     *
+     * @param listener listener of the double clicks, null to disable them
+     */
+    public RecyclerItemTouchListener setOnItemDoubleClickListener(OnItemDoubleClickListener listener) {
+        mDoubleClickListener = listener;
+        mGestureDetector.setOnDoubleTapListener(listener != null ? mGestureHandler : null);
+        return this;
+    }
+
+    /**
+     * @param throttleMillis time after the end of a handler during which new taps are dropped, 0 for none
+     */
+    public RecyclerItemTouchListener setClickThrottle(long throttleMillis) {
+        mClickThrottle = throttleMillis;
+        return this;
+    }
+
+    @Override
+    public boolean onInterceptTouchEvent(RecyclerView rv, MotionEvent e) {
+        if (e.getActionMasked() == MotionEvent.ACTION_DOWN) {
+            mTouchedChild = rv.getScrollState() == RecyclerView.SCROLL_STATE_IDLE
+                    ? rv.findChildViewUnder(e.getX(), e.getY()) : null;
+        }
+        mGestureDetector.onTouchEvent(e);
+        /* the row is clickable : taking the up event cancels its own click, the gestures click it */
+        return e.getActionMasked() == MotionEvent.ACTION_UP && mTouchedChild != null
+                && rv.getScrollState() == RecyclerView.SCROLL_STATE_IDLE;
+    }
+
+    @Override
+    public void onTouchEvent(RecyclerView rv, MotionEvent e) {
+        // only the ACTION_UP ending a gesture is intercepted, nothing follows it
+    }
+
+    @Override
+    public void onRequestDisallowInterceptTouchEvent(boolean disallowIntercept) {
+        // nothing
+    }
+
+    /**
+     * Clicks the touched row, the click is dispatched by the shared row click listener
+     */
+    private void performClick() {
+        View child = mTouchedChild;
+        if (child != null && child.getParent() == mRecycler) {
+            child.performClick();
+        }
+    }
+
+    private void dispatch(int gesture, View child) {
+        if (child == null || child.getParent() != mRecycler) {
+            return;
+        }
+        int position = mRecycler.getChildAdapterPosition(child);
+        if (position == RecyclerView.NO_POSITION || mDispatching || SystemClock.uptimeMillis() < mNextClickTime) {
+            return;
+        }
+        mDispatching = true;
+        try {
+            switch (gesture) {
+                case GestureHandler.CLICK:
+                    if (mClickListener != null) {
+                        mClickListener.onItemClick(position, child);
+                    }
+                    break;
+                case GestureHandler.LONG_CLICK:
+                    mLongClickListener.onItemLongClick(position, child);
+                    break;
+                default:
+                    mDoubleClickListener.onItemDoubleClick(position, child);
+                    break;
+            }
+        } finally {
+            mDispatching = false;
+            mNextClickTime = SystemClock.uptimeMillis() + mClickThrottle;
+        }
+    }
+
+    private class GestureHandler extends GestureDetector.SimpleOnGestureListener {
+
+        static final int CLICK = 0;
+        static final int LONG_CLICK = 1;
+        static final int DOUBLE_CLICK = 2;
+
+        @Override
+        public boolean onDown(MotionEvent e) {
+            return true;
+        }
+
+        @Override
+        public boolean onSingleTapUp(MotionEvent e) {
+            if (mDoubleClickListener == null) {
+                performClick();
+            }
+            return true;
+        }
+
+        @Override
+        public boolean onSingleTapConfirmed(MotionEvent e) {
+            if (mDoubleClickListener != null) {
+                performClick();
+            }
+            return true;
+        }
+
+        @Override
+        public boolean onDoubleTap(MotionEvent e) {
+            if (mDoubleClickListener != null) {
+                dispatch(DOUBLE_CLICK, mTouchedChild);
+            }
+            return true;
+        }
+
+        @Override
+        public void onLongPress(MotionEvent e) {
+            if (mLongClickListener != null) {
+                dispatch(LONG_CLICK, mTouchedChild);
+            }
+        }
+    }
+
+    /**
+     * Interface for Recycler Item Long Click Listener
+     */
+    public interface OnItemLongClickListener {
+
+        void onItemLongClick(int position, View view);
+    }
+
+    /**
+     * Interface for Recycler Item Double Click Listener
+     */
+    public interface OnItemDoubleClickListener {
+
+        void onItemDoubleClick(int position, View view);
+    }
+}
@@ -1,8 +1,18 @@
 package com.android.jmaxime.views.adapters;
 
 import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
 import android.widget.ArrayAdapter;
+import android.widget.Filter;
+import android.widget.TextView;
 
+import com.android.jmaxime.views.core.ItemColumns;
+import com.android.jmaxime.views.core.QueryResultCache;
+import com.android.jmaxime.views.core.TextNormalizer;
+import com.android.jmaxime.views.core.TitleFilter;
+import com.android.jmaxime.views.core.TitleSearchIndex;
 import com.android.jmaxime.views.interfaces.SpinnerDialogItem;
 
 import java.util.ArrayList;
@@ -10,35 +20,222 @@ import java.util.List;
 
 public class SpinnerElementAdapter<T extends SpinnerDialogItem> extends ArrayAdapter<String> {
 
-    private ArrayList<T> mList;
+    private List<T> mList;
+    /* copy of mList searched by the filter thread, taken when mList is set or notified */
+    private volatile Snapshot<T> mSnapshot;
+    /* snapshot of the displayed items and their positions in it, null when nothing is filtered out */
+    private Snapshot<T> mFiltered;
+    private int[] mFilteredPositions;
+    /* constraint of the displayed items, run again when the list is notified */
+    private CharSequence mConstraint;
+    private Filter mFilter;
+    private final int mResource = android.R.layout.simple_spinner_item;
+    private int mDropDownResource = android.R.layout.simple_spinner_dropdown_item;
 
+    /**
+     * @param items items, used as is when they are an {@link ItemColumns} list such as a
+     *              {@link CatalogItemList}, copied otherwise
+     */
     public SpinnerElementAdapter(Context context, List<T> items) {
-        this(context, new ArrayList<>(items));
+        super(context, android.R.layout.simple_spinner_item);
+        setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        mList = items instanceof ItemColumns ? items : new ArrayList<>(items);
+        mSnapshot = new Snapshot<>(mList);
     }
 
     public SpinnerElementAdapter(Context context, ArrayList<T> items) {
         super(context, android.R.layout.simple_spinner_item);
         setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
         mList = items;
+        mSnapshot = new Snapshot<>(mList);
     }
 
+    /**
+     * The filter searches a copy of the items : after changing this list in place,
+     * call {@link #notifyDataSetChanged()} to display and filter the changes.
+     *
+     * @return the items; a copy when the adapter runs on an {@link ItemColumns} list, which creates every item
+     */
     public ArrayList<T> getList() {
-        return mList;
+        return mList instanceof ArrayList ? (ArrayList<T>) mList : new ArrayList<>(mList);
+    }
+
+    /**
+     * Displays the changes made to {@link #getList()} in place. The list is copied, its titles are
+     * read and indexed on the filter thread : the current filter is run again there, and the filtered
+     * rows are replaced once it is done. An {@link ItemColumns} list is read-only, it is not copied again.
+     */
+    @Override
+    public void notifyDataSetChanged() {
+        if (mList instanceof ItemColumns) {
+            super.notifyDataSetChanged();
+            return;
+        }
+        mSnapshot = new Snapshot<>(mList);
+        super.notifyDataSetChanged();
+        if (mFilteredPositions != null) {
+            getFilter().filter(mConstraint);
+        }
     }
 
     @Override
     public int getCount() {
-        return mList.size();
+        return mFilteredPositions != null ? mFilteredPositions.length : mList.size();
     }
 
     @Override
     public String getItem(int position) {
-        return mList.get(position).getTitle();
+        CharSequence title = mFilteredPositions != null
+                ? mFiltered.mTitles.get(mFilteredPositions[position])
+                : SpinnerResourceAdapter.titlesOf(mList).get(position);
+        return title != null ? title.toString() : null;
+    }
+
+    /**
+     * @param position position in the displayed (filtered) items
+     * @return the item displayed at this position
+     */
+    public T getElement(int position) {
+        return mFilteredPositions != null ? mFiltered.mItems.get(mFilteredPositions[position]) : mList.get(position);
+    }
+
+    /**
+     * @param position position in the displayed (filtered) items
+     * @return the position of this item in {@link #getList()}, as it was when the displayed rows were filtered
+     */
+    public int getRealPosition(int position) {
+        return mFilteredPositions != null ? mFilteredPositions[position] : position;
+    }
+
+    @Override
+    public void setDropDownViewResource(int resource) {
+        super.setDropDownViewResource(resource);
+        mDropDownResource = resource;
+    }
+
+    @Override
+    public View getView(int position, View convertView, ViewGroup parent) {
+        return bindView(position, convertView, parent, mResource);
+    }
+
+    @Override
+    public View getDropDownView(int position, View convertView, ViewGroup parent) {
+        return bindView(position, convertView, parent, mDropDownResource);
+    }
+
+    private View bindView(int position, View convertView, ViewGroup parent, int resource) {
+        ViewHolder holder;
+        if (convertView == null || !(convertView.getTag() instanceof ViewHolder)
+                || ((ViewHolder) convertView.getTag()).mResource != resource) {
+            convertView = LayoutInflater.from(getContext()).inflate(resource, parent, false);
+            holder = new ViewHolder(convertView, resource);
+            convertView.setTag(holder);
+        } else {
+            holder = (ViewHolder) convertView.getTag();
+        }
+        holder.mText.setText(getItem(position));
+        return convertView;
+    }
+
+    /**
+     * Substring filter over the titles of the items, case and accent insensitive. The titles are
+     * read and indexed on the filter worker thread, the first time a filter runs after the list is set or notified.
+     */
+    @Override
+    public Filter getFilter() {
+        if (mFilter == null) {
+            mFilter = new ElementFilter();
+        }
+        return mFilter;
     }
 
     @Override
     public void clear() {
-        super.clear();
-        mList = new ArrayList<T>();
+        mList = new ArrayList<>();
+        mSnapshot = new Snapshot<>(mList);
+        mFiltered = null;
+        mFilteredPositions = null;
+        mConstraint = null;
+        super.notifyDataSetChanged();
+    }
+
+    private static class ViewHolder {
+
+        private final TextView mText;
+        private final int mResource;
+
+        ViewHolder(View view, int resource) {
+            mText = view instanceof TextView ? (TextView) view : (TextView) view.findViewById(android.R.id.text1);
+            mResource = resource;
+        }
+    }
+
+    private class ElementFilter extends Filter {
+
+        @Override
+        protected FilterResults performFiltering(CharSequence constraint) {
+            Snapshot<T> snapshot = mSnapshot;
+            FilterResults results = new FilterResults();
+            if (TextNormalizer.fold(constraint).isEmpty()) {
+                results.values = null;
+                results.count = snapshot.mItems.size();
+            } else {
+                int[] positions = snapshot.mTitleFilter.filter(constraint.toString(), null);
+                results.values = new FilteredPositions<>(snapshot, positions);
+                results.count = positions.length;
+            }
+            return results;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void publishResults(CharSequence constraint, FilterResults results) {
+            FilteredPositions<T> filtered = (FilteredPositions<T>) results.values;
+            if (filtered != null && filtered.mSnapshot != mSnapshot) {
+                /* searched in a copy of the list taken before it was notified */
+                filter(constraint);
+                return;
+            }
+            mFiltered = filtered != null ? filtered.mSnapshot : null;
+            mFilteredPositions = filtered != null ? filtered.mPositions : null;
+            mConstraint = constraint;
+            if (results.count > 0) {
+                /* the list is up to date, only the displayed rows changed */
+                SpinnerElementAdapter.super.notifyDataSetChanged();
+            } else {
+                notifyDataSetInvalidated();
+            }
+        }
+    }
+
+    /**
+     * Items searched by the filter thread : a copy of the list, or the list itself when it is a
+     * read-only {@link ItemColumns}, with the index of its titles, read and built by the first search
+     */
+    private static final class Snapshot<T extends SpinnerDialogItem> {
+
+        final List<T> mItems;
+        final List<? extends CharSequence> mTitles;
+        final TitleFilter mTitleFilter;
+
+        Snapshot(List<T> items) {
+            mItems = items instanceof ItemColumns ? items : new ArrayList<>(items);
+            mTitles = SpinnerResourceAdapter.titlesOf(mItems);
+            mTitleFilter = new TitleFilter(new TitleSearchIndex(mTitles), new QueryResultCache());
+        }
+    }
+
+    /**
+     * Filter result, with the snapshot it was searched in
+     */
+    private static class FilteredPositions<T extends SpinnerDialogItem> {
+
+        private final Snapshot<T> mSnapshot;
+        private final int[] mPositions;
+
+        FilteredPositions(Snapshot<T> snapshot, int[] positions) {
+            mSnapshot = snapshot;
+            mPositions = positions;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,342 @@
+package com.android.jmaxime.views.adapters;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.v7.widget.RecyclerView;
+import android.text.TextUtils;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.android.jmaxime.views.R;
+import com.android.jmaxime.views.core.CancellationToken;
+import com.android.jmaxime.views.interfaces.SpinnerDialogItem;
+import com.android.jmaxime.views.interfaces.SpinnerPagedSource;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Paged variant of {@link SpinnerResourceAdapter} for lists too large to be held in memory.
+ * <p>
+ * Items are loaded from a {@link SpinnerPagedSource} by fixed-size pages, on demand when a row
+ * is bound, with the neighbouring pages prefetched. Only the most recently used pages are kept.
+ * Rows whose page is not loaded yet are bound as empty placeholders. A query failing in the
+ * source is reported to the {@link OnLoadErrorListener}, the page is loaded again the next time
+ * one of its rows is bound.
+ */
+public class SpinnerPagedAdapter<T extends SpinnerDialogItem> extends RecyclerView.Adapter<SpinnerResourceAdapter.ResourceHolder<T>> {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int DEFAULT_PREFETCH_PAGES = 1;
+    public static final int DEFAULT_MAX_PAGES = 8;
+
+    private final SpinnerPagedSource<T> mSource;
+    private final int mPageSize;
+    private final int mPrefetchPages;
+    private final int mMaxPages;
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private final LinkedHashMap<Integer, List<T>> mPages = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<Integer> mLoadingPages = new HashSet<>();
+    private Executor mExecutor;
+    private OnLoadErrorListener mOnLoadErrorListener;
+    private CancellationToken mGeneration = new CancellationToken();
+    /* true until the count of the current filter is known */
+    private boolean mReloading;
+    private String mFilter = "";
+    private int mCount;
+    private String mSelectedId;
+
+    public SpinnerPagedAdapter(SpinnerPagedSource<T> source) {
+        this(source, DEFAULT_PAGE_SIZE, DEFAULT_PREFETCH_PAGES, DEFAULT_MAX_PAGES);
+    }
+
+    /**
+     * @param source        source of the items
+     * @param pageSize      number of items loaded at once
+     * @param prefetchPages number of pages loaded ahead of and behind the bound row
+     * @param maxPages      number of pages kept in memory, at least enough for the prefetched window
+     */
+    public SpinnerPagedAdapter(SpinnerPagedSource<T> source, int pageSize, int prefetchPages, int maxPages) {
+        mSource = source;
+        mPageSize = pageSize;
+        mPrefetchPages = prefetchPages;
+        mMaxPages = Math.max(maxPages, 2 * prefetchPages + 2);
+        reload();
+    }
+
+    /**
+     * @param executor executor running the source queries, null for the shared default one
+     */
+    public void setExecutor(Executor executor) {
+        mExecutor = executor;
+    }
+
+    /**
+     * @param listener listener told on the main thread when the source throws; without listener
+     *                 the exception is thrown again on the main thread
+     */
+    public void setOnLoadErrorListener(OnLoadErrorListener listener) {
+        mOnLoadErrorListener = listener;
+    }
+
+    @Override
+    public SpinnerResourceAdapter.ResourceHolder<T> onCreateViewHolder(ViewGroup parent, int viewType) {
+        View v = LayoutInflater.from(parent.getContext()).inflate(R.layout.adapter_selected_value_recycler, parent, false);
+        return new SpinnerResourceAdapter.ResourceHolder<>(v);
+    }
+
+    @Override
+    public void onBindViewHolder(SpinnerResourceAdapter.ResourceHolder<T> holder, int position) {
+        T item = getItem(position);
+        if (item == null) {
+            holder.onBindPlaceholder();
+        } else {
+            holder.onBind(item, isSelected(position), null);
+        }
+    }
+
+    @Override
+    public void onBindViewHolder(SpinnerResourceAdapter.ResourceHolder<T> holder, int position, List<Object> payloads) {
+        if (SpinnerResourceAdapter.isSelectionPayload(payloads)) {
+            holder.onBindSelection(isSelected(position));
+        } else {
+            onBindViewHolder(holder, position);
+        }
+    }
+
+    /**
+     * The selection is kept by id, so it follows the item when a filter moves it to another row
+     */
+    private boolean isSelected(int position) {
+        T item = peekItem(position);
+        return item != null && TextUtils.equals(mSelectedId, item.getId());
+    }
+
+    @Override
+    public int getItemCount() {
+        return mCount;
+    }
+
+    /**
+     * @param position position of the row
+     * @return the item of this row, or null if its page is not loaded yet (the load is then requested)
+     */
+    public T getItem(int position) {
+        T item = peekItem(position);
+        prefetchAround(position / mPageSize);
+        return item;
+    }
+
+    /**
+     * @return the item of this row, or null if its page is not loaded
+     */
+    private T peekItem(int position) {
+        int page = position / mPageSize;
+        List<T> items = mPages.get(page);
+        int offset = position - page * mPageSize;
+        return items != null && offset < items.size() ? items.get(offset) : null;
+    }
+
+    public void selectedItem(int position) {
+        T item = getItem(position);
+        if (item == null) {
+            return;
+        }
+        String previousId = mSelectedId;
+        mSelectedId = item.getId();
+        if (!TextUtils.equals(previousId, mSelectedId)) {
+            notifyRowsOf(previousId);
+        }
+        notifyItemChanged(position, SpinnerResourceAdapter.PAYLOAD_SELECTION);
+    }
+
+    /**
+     * Rebinds the check mark of the loaded rows of the item with this id. The selected row is found
+     * by id because a reload moves it : the rows of the pages loaded later are bound with their selection.
+     */
+    private void notifyRowsOf(String id) {
+        if (id == null) {
+            return;
+        }
+        for (Map.Entry<Integer, List<T>> page : mPages.entrySet()) {
+            List<T> items = page.getValue();
+            for (int i = 0; i < items.size(); i++) {
+                T item = items.get(i);
+                if (item != null && id.equals(item.getId())) {
+                    notifyItemChanged(page.getKey() * mPageSize + i, SpinnerResourceAdapter.PAYLOAD_SELECTION);
+                }
+            }
+        }
+    }
+
+    /**
+     * Filters the items in the source, the rows are replaced once the new count is known.
+     *
+     * @param value filter passed to the source
+     */
+    public void setFilterChoice(String value) {
+        mFilter = value != null ? value : "";
+        reload();
+    }
+
+    private void reload() {
+        mGeneration.cancel();
+        final CancellationToken generation = new CancellationToken();
+        final String filter = mFilter;
+        mGeneration = generation;
+        mReloading = true;
+        getExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                if (generation.isCancelled()) {
+                    return;
+                }
+                final int count;
+                final List<T> firstPage;
+                try {
+                    count = mSource.count(filter);
+                    firstPage = count > 0 && !generation.isCancelled()
+                            ? mSource.loadRange(filter, 0, Math.min(mPageSize, count))
+                            : null;
+                } catch (final RuntimeException e) {
+                    mMainHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            if (generation.isCancelled()) {
+                                return;
+                            }
+                            /* the rows of the previous filter do not match mFilter anymore */
+                            mReloading = false;
+                            mPages.clear();
+                            mLoadingPages.clear();
+                            mCount = 0;
+                            notifyDataSetChanged();
+                            onLoadError(e);
+                        }
+                    });
+                    return;
+                }
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation.isCancelled()) {
+                            return;
+                        }
+                        mReloading = false;
+                        mPages.clear();
+                        mLoadingPages.clear();
+                        if (firstPage != null) {
+                            mPages.put(0, firstPage);
+                        }
+                        mCount = count;
+                        notifyDataSetChanged();
+                    }
+                });
+            }
+        });
+    }
+
+    private void prefetchAround(int page) {
+        if (mReloading) {
+            return;
+        }
+        int lastPage = (mCount - 1) / mPageSize;
+        for (int p = Math.max(0, page - mPrefetchPages); p <= Math.min(lastPage, page + mPrefetchPages); p++) {
+            loadPage(p);
+        }
+    }
+
+    private void loadPage(final int page) {
+        if (mPages.containsKey(page) || !mLoadingPages.add(page)) {
+            return;
+        }
+        final CancellationToken generation = mGeneration;
+        final String filter = mFilter;
+        final int offset = page * mPageSize;
+        final int limit = Math.min(mPageSize, mCount - offset);
+        getExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                if (generation.isCancelled()) {
+                    return;
+                }
+                final List<T> items;
+                try {
+                    items = mSource.loadRange(filter, offset, limit);
+                } catch (final RuntimeException e) {
+                    mMainHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            if (generation.isCancelled()) {
+                                return;
+                            }
+                            /* the page is requested again by the next bind of one of its rows */
+                            mLoadingPages.remove(page);
+                            onLoadError(e);
+                        }
+                    });
+                    return;
+                }
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation.isCancelled()) {
+                            return;
+                        }
+                        mLoadingPages.remove(page);
+                        mPages.put(page, items);
+                        trimPages();
+                        notifyItemRangeChanged(offset, Math.min(items.size(), mCount - offset));
+                    }
+                });
+            }
+        });
+    }
+
+    private void onLoadError(RuntimeException e) {
+        if (mOnLoadErrorListener == null) {
+            throw e;
+        }
+        mOnLoadErrorListener.onLoadError(mFilter, e);
+    }
+
+    private void trimPages() {
+        Iterator<Integer> eldest = mPages.keySet().iterator();
+        while (mPages.size() > mMaxPages && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private Executor getExecutor() {
+        return mExecutor != null ? mExecutor : LoaderExecutorHolder.EXECUTOR;
+    }
+
+    private static class LoaderExecutorHolder {
+        static final Executor EXECUTOR = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "SpinnerPagedAdapter-loader");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    public interface OnLoadErrorListener {
+
+        /**
+         * @param filter filter of the failed query
+         * @param error  exception thrown by the {@link SpinnerPagedSource}
+         */
+        void onLoadError(String filter, RuntimeException error);
+    }
+}
@@ -1,25 +1,132 @@
 package com.android.jmaxime.views.adapters;
 
+import android.content.res.TypedArray;
 import android.graphics.drawable.Drawable;
+import android.os.Handler;
+import android.os.Looper;
 import android.support.v7.widget.RecyclerView;
+import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.CheckedTextView;
+import android.widget.SectionIndexer;
 
+import com.android.jmaxime.views.CheckedTitleRowView;
 import com.android.jmaxime.views.R;
+import com.android.jmaxime.views.core.CancellationToken;
+import com.android.jmaxime.views.core.ChangeSet;
+import com.android.jmaxime.views.core.CodeIndex;
+import com.android.jmaxime.views.core.FuzzyMatcher;
+import com.android.jmaxime.views.core.IdInterner;
+import com.android.jmaxime.views.core.IdPositionIndex;
+import com.android.jmaxime.views.core.ItemColumns;
+import com.android.jmaxime.views.core.ItemValueMatcher;
+import com.android.jmaxime.views.core.MultiSelection;
+import com.android.jmaxime.views.core.QueryResultCache;
+import com.android.jmaxime.views.core.SectionIndex;
+import com.android.jmaxime.views.core.TextNormalizer;
+import com.android.jmaxime.views.core.TitleFilter;
+import com.android.jmaxime.views.core.TitleSearchIndex;
+import com.android.jmaxime.views.core.ViewsMetrics;
 import com.android.jmaxime.views.interfaces.SpinnerDialogItem;
+import com.android.jmaxime.views.interfaces.SpinnerItemComparableValue;
+import com.android.jmaxime.views.interfaces.SpinnerItemMatchKeys;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
 import java.util.List;
-import java.util.Objects;
+import java.util.ListIterator;
+import java.util.RandomAccess;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
-public class SpinnerResourceAdapter<T extends SpinnerDialogItem> extends RecyclerView.Adapter<SpinnerResourceAdapter.ResourceHolder<T>> {
+public class SpinnerResourceAdapter<T extends SpinnerDialogItem> extends RecyclerView.Adapter<SpinnerResourceAdapter.ResourceHolder<T>>
+        implements SectionIndexer {
+
+    /**
+     * Payload of the rows whose check state changed, only the check mark is rebound
+     */
+    public static final String PAYLOAD_SELECTION = "selection";
+
+    /**
+     * One item at most is selected, see {@link #selectedItem(int)}
+     */
+    public static final int CHOICE_MODE_SINGLE = 0;
+    /**
+     * {@link #selectedItem(int)} toggles the selection of the item
+     */
+    public static final int CHOICE_MODE_MULTIPLE = 1;
+
+    /**
+     * {@link #setFilterChoice(String)} keeps the titles containing the query, in list order
+     */
+    public static final int SEARCH_MODE_SUBSTRING = 0;
+    /**
+     * {@link #setFilterChoice(String)} keeps the best fuzzy matches of the query, best first
+     *
+     * @see FuzzyMatcher
+     */
+    public static final int SEARCH_MODE_RANKED = 1;
+    /**
+     * {@link #setFilterChoice(String)} keeps the items whose code starts with the query, in list order
+     *
+     * @see #selectByCode(String)
+     */
+    public static final int SEARCH_MODE_CODE_PREFIX = 2;
+    public static final int DEFAULT_RANKED_LIMIT = 100;
 
     private List<T> mList;
     private List<T> mListFiltered;
     private String mDefaultSelectedItem;
     private String mEmpty;
+    /* position of the selected item in mListFiltered */
+    private int mSelectedPosition = RecyclerView.NO_POSITION;
+    private int mChoiceMode = CHOICE_MODE_SINGLE;
+    /* selection of the multiple choice mode, by position in mList */
+    private MultiSelection mMultiSelection;
+    /* positions of mListFiltered in mList, null when mListFiltered is mList */
+    private int[] mFilteredPositions;
+    /* scores of mListFiltered in ranked mode, null otherwise */
+    private int[] mMatchScores;
+    private String mFilterQuery = "";
+    private int mSearchMode = SEARCH_MODE_SUBSTRING;
+    private int mRankedLimit = DEFAULT_RANKED_LIMIT;
+    private boolean mSectioned;
+    /* sections of mListFiltered, null when the sectioned mode is off */
+    private SectionIndex mSections;
+
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private final ChangeSet.Receiver mChangeReceiver = new AdapterChangeReceiver();
+    private final IdInterner mStableIds = new IdInterner();
+    private final TitleLayoutCache mTitleLayouts = new TitleLayoutCache();
+    /* copy of mList read by the filter executor, taken when mList was indexed */
+    private Choices<T> mChoices;
+    private IdPositionIndex mIdIndex;
+    private ItemValueMatcher mMatchKeys;
+    private TitleFilter mTitleFilter;
+    private FuzzyMatcher mMatcher;
+    private CodeIndex mCodeIndex;
+    /* matches of the displayed code prefix, null in the other search modes */
+    private CodeIndex.Matches mCodeMatches;
+    private QueryResultCache mFilterCache;
+    private int mFilterCacheSize = QueryResultCache.DEFAULT_MAX_ENTRIES;
+    /* cache counters of the previous lists */
+    private int mRetiredCacheHits;
+    private int mRetiredCacheMisses;
+    private CancellationToken mPendingFilter;
+    private CancellationToken mPendingSubmit;
+    private boolean mAsyncFilter;
+    private Executor mFilterExecutor;
+
+    /* rows bound since the last notification, reported once the layout which follows it is done */
+    private int mBoundSinceNotify;
+    private boolean mReboundReportPending;
+    private final ReboundObserver mReboundObserver = new ReboundObserver();
+    /* lists showing this adapter, listened to from a notification to the layout which follows it */
+    private final List<RecyclerView> mRecyclerViews = new ArrayList<>(1);
 
     public SpinnerResourceAdapter(List<T> list) {
         this("", "", list, false);
@@ -38,6 +145,10 @@ public class SpinnerResourceAdapter<T extends SpinnerDialogItem> extends Recycle
     }
 
     private SpinnerResourceAdapter(String defaultSelectedItem, String empty, List<T> list, boolean addEmptyChoice) {
+        if (addEmptyChoice && list instanceof ItemColumns) {
+            throw new IllegalArgumentException("addEmptyChoice inserts a row, "
+                    + list.getClass().getSimpleName() + " is read-only");
+        }
         mDefaultSelectedItem = defaultSelectedItem;
         mList = list;
         if (addEmptyChoice) {
@@ -45,17 +156,96 @@ public class SpinnerResourceAdapter<T extends SpinnerDialogItem> extends Recycle
         }
         mListFiltered = list;
         mEmpty = empty;
+        setHasStableIds(true);
+        registerAdapterDataObserver(mReboundObserver);
+        indexChoices();
+        mSelectedPosition = findSelectedPosition();
     }
 
     @Override
     public ResourceHolder<T> onCreateViewHolder(ViewGroup parent, int viewType) {
+        long start = ViewsMetrics.start();
         View v = LayoutInflater.from(parent.getContext()).inflate(R.layout.adapter_selected_value_recycler, parent, false);
-        return new ResourceHolder<>(v, mEmpty);
+        ResourceHolder<T> holder = new ResourceHolder<>(v);
+        if (viewType == CHOICE_MODE_MULTIPLE) {
+            TypedArray a = parent.getContext().obtainStyledAttributes(new int[]{android.R.attr.listChoiceIndicatorMultiple});
+            holder.setCheckMark(a.getDrawable(0));
+            a.recycle();
+        }
+        if (start != 0) {
+            ViewsMetrics.getListener().onViewHolderCreated(ViewsMetrics.since(start));
+        }
+        return holder;
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return mChoiceMode;
     }
 
     @Override
     public void onBindViewHolder(ResourceHolder<T> holder, int position) {
-        holder.onBind(mListFiltered.get(position), isSelectedItem(mListFiltered.get(position)));
+        long start = ViewsMetrics.start();
+        holder.onBind(mListFiltered.get(position), isSelected(position), mEmpty, mTitleLayouts);
+        mBoundSinceNotify++;
+        if (start != 0) {
+            ViewsMetrics.getListener().onViewHolderBound(ViewsMetrics.since(start), false);
+        }
+    }
+
+    @Override
+    public void onBindViewHolder(ResourceHolder<T> holder, int position, List<Object> payloads) {
+        if (isSelectionPayload(payloads)) {
+            long start = ViewsMetrics.start();
+            holder.onBindSelection(isSelected(position));
+            mBoundSinceNotify++;
+            if (start != 0) {
+                ViewsMetrics.getListener().onViewHolderBound(ViewsMetrics.since(start), true);
+            }
+        } else {
+            onBindViewHolder(holder, position);
+        }
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(RecyclerView recyclerView) {
+        mRecyclerViews.add(recyclerView);
+        if (mReboundReportPending) {
+            recyclerView.addOnLayoutChangeListener(mReboundObserver);
+        }
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(RecyclerView recyclerView) {
+        mRecyclerViews.remove(recyclerView);
+        recyclerView.removeOnLayoutChangeListener(mReboundObserver);
+    }
+
+    private boolean isSelected(int position) {
+        if (mChoiceMode == CHOICE_MODE_MULTIPLE) {
+            return mMultiSelection.isSelected(toListPosition(position));
+        }
+        return position == mSelectedPosition;
+    }
+
+    /**
+     * @param position position in the filtered list
+     * @return the position of the same item in the whole list
+     */
+    private int toListPosition(int position) {
+        return mFilteredPositions != null ? mFilteredPositions[position] : position;
+    }
+
+    static boolean isSelectionPayload(List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            return false;
+        }
+        for (Object payload : payloads) {
+            if (!PAYLOAD_SELECTION.equals(payload)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
@@ -63,12 +253,103 @@ public class SpinnerResourceAdapter<T extends SpinnerDialogItem> extends Recycle
         return mListFiltered.size();
     }
 
-    private boolean isSelectedItem(T item) {
-        return Objects.equals(mDefaultSelectedItem, item != null ? item.getId() : null);
+    /**
+     * Stable id of the row, interned from {@link SpinnerDialogItem#getId()} so the same item keeps
+     * the same id across list changes. The empty choice row gets {@link IdInterner#EMPTY_ID}.
+     */
+    @Override
+    public long getItemId(int position) {
+        T item = mListFiltered.get(position);
+        return mStableIds.intern(item != null ? item.getId() : null);
+    }
+
+    /**
+     * Selects the item matching value : through {@link SpinnerItemMatchKeys} keys, indexed when the
+     * list is set, or else by asking {@link SpinnerItemComparableValue#isMatchValue(String)} to the
+     * items which do not provide keys.
+     *
+     * @param value default value
+     * @return true if an item matches
+     */
+    public boolean setDefaultValue(String value) {
+        reindexIfChanged();
+        int position = mMatchKeys.find(mList, value);
+        if (position < 0) {
+            return false;
+        }
+        selectListPosition(position);
+        return true;
+    }
+
+    /**
+     * Selects the item with this exact code, for example a scanned barcode. In multiple choice
+     * mode the item is added to the selection.
+     *
+     * @param code code of an item, compared like the {@link #SEARCH_MODE_CODE_PREFIX} filter
+     * @return false if no item has this code
+     */
+    public boolean selectByCode(String code) {
+        reindexIfChanged();
+        int position = mCodeIndex.getPosition(code);
+        if (position < 0) {
+            return false;
+        }
+        if (mChoiceMode == CHOICE_MODE_MULTIPLE) {
+            mMultiSelection.setSelected(position, true);
+            int filteredPosition = mIdIndex.toFilteredPosition(position);
+            if (filteredPosition >= 0) {
+                notifyItemChanged(filteredPosition, PAYLOAD_SELECTION);
+            }
+        } else {
+            selectListPosition(position);
+        }
+        return true;
+    }
+
+    /**
+     * @param position position in the whole list of the item to select in single choice mode
+     */
+    private void selectListPosition(int position) {
+        T item = mList.get(position);
+        String previousId = mDefaultSelectedItem;
+        mDefaultSelectedItem = item != null ? item.getId() : "";
+        int previous = mSelectedPosition;
+        mSelectedPosition = findSelectedPosition();
+        if (previous != RecyclerView.NO_POSITION && previous != mSelectedPosition) {
+            notifyItemChanged(previous, PAYLOAD_SELECTION);
+        }
+        if (mSelectedPosition != RecyclerView.NO_POSITION && !TextUtils.equals(previousId, mDefaultSelectedItem)) {
+            notifyItemChanged(mSelectedPosition, PAYLOAD_SELECTION);
+        }
+    }
+
+    private int findSelectedPosition() {
+        int position = mIdIndex.getFilteredPosition(mDefaultSelectedItem);
+        return position >= 0 ? position : RecyclerView.NO_POSITION;
     }
 
     public int getRealPosition(T item) {
-        return mList.indexOf(item);
+        int position = mIdIndex.getPosition(item != null ? item.getId() : null);
+        if (position >= 0 && (mList.get(position) == item || mList instanceof ItemColumns)) {
+            return position;
+        }
+        return mList instanceof ItemColumns ? -1 : mList.indexOf(item);
+    }
+
+    /**
+     * @param id id of an item
+     * @return the position of this item in the whole list, or -1
+     */
+    public int getPositionById(String id) {
+        return mIdIndex.getPosition(id);
+    }
+
+    /**
+     * @param id id of an item
+     * @return the position of this item in the filtered list, or -1 if it is unknown or filtered out
+     */
+    public int getFilteredPositionById(String id) {
+        return mIdIndex.getFilteredPosition(id);
     }
 
     public T getItem(int position) {
@@ -77,50 +358,969 @@ public class SpinnerResourceAdapter<T extends SpinnerDialogItem> extends Recycle
 
     public void selectedItem(int position) {
         T item = getItem(position);
+        if (mChoiceMode == CHOICE_MODE_MULTIPLE) {
+            if (item != null) {
+                mMultiSelection.toggle(toListPosition(position));
+                notifyItemChanged(position, PAYLOAD_SELECTION);
+            }
+            return;
+        }
         mDefaultSelectedItem = item != null ? item.getId() : "";
+        int previous = mSelectedPosition;
+        mSelectedPosition = position;
+        if (previous != RecyclerView.NO_POSITION && previous != position) {
+            notifyItemChanged(previous, PAYLOAD_SELECTION);
+        }
+        notifyItemChanged(position, PAYLOAD_SELECTION);
+    }
+
+    /**
+     * @param choiceMode {@link #CHOICE_MODE_SINGLE} or {@link #CHOICE_MODE_MULTIPLE}
+     */
+    public void setChoiceMode(int choiceMode) {
+        if (choiceMode == mChoiceMode) {
+            return;
+        }
+        mChoiceMode = choiceMode;
+        mMultiSelection = choiceMode == CHOICE_MODE_MULTIPLE ? new MultiSelection(mList.size()) : null;
         notifyDataSetChanged();
     }
 
+    public int getChoiceMode() {
+        return mChoiceMode;
+    }
+
+    /**
+     * Multiple choice mode : selects every item matching the current filter.
+     *
+     * @throws IllegalStateException in single choice mode
+     */
+    public void selectAllFiltered() {
+        checkMultipleChoiceMode("selectAllFiltered");
+        mMultiSelection.selectAll(mFilteredPositions);
+        unselectEmptyChoice();
+        notifySelectionChanged();
+    }
+
+    /**
+     * Multiple choice mode : inverts the selection of every item matching the current filter.
+     *
+     * @throws IllegalStateException in single choice mode
+     */
+    public void invertFilteredSelection() {
+        checkMultipleChoiceMode("invertFilteredSelection");
+        mMultiSelection.invert(mFilteredPositions);
+        unselectEmptyChoice();
+        notifySelectionChanged();
+    }
+
+    /**
+     * The empty choice row is a placeholder, never selected : {@link #getSelectedCount()}
+     * then counts the items returned by {@link #getSelectedItems()}
+     */
+    private void unselectEmptyChoice() {
+        if (!mList.isEmpty() && mList.get(0) == null) {
+            mMultiSelection.setSelected(0, false);
+        }
+    }
+
+    /**
+     * Multiple choice mode : unselects every item, filtered out or not.
+     *
+     * @throws IllegalStateException in single choice mode
+     */
+    public void clearSelection() {
+        checkMultipleChoiceMode("clearSelection");
+        mMultiSelection.clear();
+        notifySelectionChanged();
+    }
+
+    private void checkMultipleChoiceMode(String method) {
+        if (mChoiceMode != CHOICE_MODE_MULTIPLE) {
+            throw new IllegalStateException(method + " needs CHOICE_MODE_MULTIPLE, see setChoiceMode(int)");
+        }
+    }
+
+    /**
+     * @return the number of selected items, filtered out or not
+     */
+    public int getSelectedCount() {
+        if (mChoiceMode == CHOICE_MODE_MULTIPLE) {
+            return mMultiSelection.count();
+        }
+        return getSelectedItems().size();
+    }
+
+    /**
+     * @return the selected items in list order, filtered out or not
+     */
+    public List<T> getSelectedItems() {
+        List<T> selected = new ArrayList<>();
+        if (mChoiceMode == CHOICE_MODE_MULTIPLE) {
+            for (int position : mMultiSelection.getSelectedPositions()) {
+                if (mList.get(position) != null) {
+                    selected.add(mList.get(position));
+                }
+            }
+        } else {
+            int position = mIdIndex.getPosition(mDefaultSelectedItem);
+            if (position >= 0 && mList.get(position) != null) {
+                selected.add(mList.get(position));
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Only the bound rows are rebound, with the selection payload
+     */
+    private void notifySelectionChanged() {
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
+    }
+
     public void setChoice(ArrayList<T> itemChoices) {
+        long start = ViewsMetrics.start();
+        cancelPendingFilter();
+        cancelPendingSubmit();
         mList = itemChoices;
         mListFiltered = itemChoices;
+        mFilteredPositions = null;
+        mMatchScores = null;
+        mFilterQuery = "";
+        if (mMultiSelection != null) {
+            mMultiSelection = new MultiSelection(itemChoices.size());
+        }
+        indexChoices();
+        mSelectedPosition = findSelectedPosition();
+        updateSections(null);
         notifyDataSetChanged();
+        if (start != 0) {
+            ViewsMetrics.getListener().onChoicesSet(ViewsMetrics.since(start), itemChoices.size());
+        }
     }
 
-    public void setFilterChoice(String value) {
-        mListFiltered = new ArrayList<>();
-        for (T t : mList) {
-            if (t.getTitle().toUpperCase().contains(value.toUpperCase())) {
-                mListFiltered.add(t);
+    /**
+     * Indexes the ids of mList and creates its title search index, built on the filter
+     * executor with its code index so they are usually ready before the first query, and its result cache.
+     * The text layouts of the first rows are built on the filter executor as well.
+     * The indexes are built from a copy of mList, see {@link #reindexIfChanged()}.
+     */
+    private void indexChoices() {
+        final Choices<T> choices = new Choices<>(mList);
+        final TitleSearchIndex index = new TitleSearchIndex(choices.mTitles);
+        final CodeIndex codeIndex = new CodeIndex(choices.mCodes);
+        QueryResultCache cache = new QueryResultCache(mFilterCacheSize, QueryResultCache.DEFAULT_MAX_POSITIONS);
+        mChoices = choices;
+        installIndexes(new IdPositionIndex(choices.mIds), new TitleFilter(index, cache),
+                new FuzzyMatcher(index, choices.mCodes), codeIndex, cache, ItemValueMatcher.of(mList));
+        getFilterExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                mTitleLayouts.prefetch(choices.mTitles);
+                index.prepare();
+                codeIndex.prepare();
+            }
+        });
+    }
+
+    /**
+     * The list given to the adapter may be changed in place, as it was filtered at query time before
+     * it was indexed : when it does not hold the indexed items anymore, it is indexed again and shown
+     * unfiltered, the next filter is then computed from there. For an {@link ArrayList} the check costs
+     * the same whatever the size : it only sees the structural changes, such as an add, a remove or a
+     * sort, and an item replaced with {@link List#set(int, Object)} is not detected. The other lists are
+     * compared item reference by item reference. In both cases an item whose title changes in place is
+     * not detected, call {@link #setChoice(ArrayList)} for that.
+     */
+    private void reindexIfChanged() {
+        if (!mChoices.isStale(mList)) {
+            return;
+        }
+        cancelPendingFilter();
+        Choices<T> previous = mChoices;
+        indexChoices();
+        if (mMultiSelection != null) {
+            mMultiSelection = remapSelection(mMultiSelection, previous.mItems, mList, mIdIndex);
+        }
+        applyFilter(mList, null, null);
+        notifyDataSetChanged();
+    }
+
+    private void installIndexes(IdPositionIndex idIndex, TitleFilter titleFilter, FuzzyMatcher matcher,
+                                CodeIndex codeIndex, QueryResultCache cache, ItemValueMatcher matchKeys) {
+        if (mFilterCache != null) {
+            mRetiredCacheHits += mFilterCache.getHitCount();
+            mRetiredCacheMisses += mFilterCache.getMissCount();
+        }
+        mIdIndex = idIndex;
+        mMatchKeys = matchKeys;
+        mTitleFilter = titleFilter;
+        mMatcher = matcher;
+        mCodeIndex = codeIndex;
+        mFilterCache = cache;
+    }
+
+    /**
+     * Replaces the choices like {@link #setChoice(ArrayList)}, without a full rebind : old and new
+     * items are matched by {@link SpinnerDialogItem#getId()} on the filter executor, then only the
+     * rows inserted, removed, moved or whose title changed are notified. The current filter is kept.
+     *
+     * @param itemChoices new choices
+     */
+    public void submitChoices(final List<T> itemChoices) {
+        final long start = ViewsMetrics.start();
+        cancelPendingSubmit();
+        final CancellationToken token = new CancellationToken();
+        final List<T> previous = mListFiltered;
+        final List<? extends CharSequence> previousIds = column(mChoices.mIds, mFilteredPositions);
+        final List<? extends CharSequence> previousTitles = column(mChoices.mTitles, mFilteredPositions);
+        final Choices<T> choices = new Choices<>(itemChoices);
+        final String query = mFilterQuery;
+        final int cacheSize = mFilterCacheSize;
+        final boolean sectioned = mSectioned;
+        final int searchMode = mSearchMode;
+        final int rankedLimit = mRankedLimit;
+        mPendingSubmit = token;
+        getFilterExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                if (token.isCancelled()) {
+                    return;
+                }
+                final IdPositionIndex idIndex = new IdPositionIndex(choices.mIds);
+                final ItemValueMatcher matchKeys = ItemValueMatcher.of(choices.mItems);
+                final QueryResultCache cache = new QueryResultCache(cacheSize, QueryResultCache.DEFAULT_MAX_POSITIONS);
+                final TitleSearchIndex index = new TitleSearchIndex(choices.mTitles);
+                final TitleFilter titleFilter = new TitleFilter(index, cache);
+                final FuzzyMatcher matcher = new FuzzyMatcher(index, choices.mCodes);
+                final CodeIndex codeIndex = new CodeIndex(choices.mCodes);
+                final FilterResult result = search(query, searchMode, titleFilter, matcher, codeIndex, null, rankedLimit, token);
+                if (token.isCancelled()) {
+                    return;
+                }
+                final int[] positions = result != null ? result.mPositions : null;
+                final List<T> filtered = positions == null ? itemChoices : collect(choices.mItems, positions);
+                final List<? extends CharSequence> titles = column(choices.mTitles, positions);
+                final ChangeSet changes = diffById(previousIds, previousTitles, column(choices.mIds, positions), titles);
+                final SectionIndex sections = sectioned ? SectionIndex.of(titles) : null;
+                mTitleLayouts.prefetch(titles);
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (token != mPendingSubmit || token.isCancelled()) {
+                            return;
+                        }
+                        mPendingSubmit = null;
+                        cancelPendingFilter();
+                        if (mMultiSelection != null) {
+                            mMultiSelection = remapSelection(mMultiSelection, mList, itemChoices, idIndex);
+                        }
+                        mList = itemChoices;
+                        mChoices = choices;
+                        installIndexes(idIndex, titleFilter, matcher, codeIndex, cache, matchKeys);
+                        if (previous != mListFiltered || !TextUtils.equals(query, mFilterQuery) || searchMode != mSearchMode) {
+                            /* the filtered rows changed meanwhile, the diff does not apply anymore */
+                            refilterAll();
+                        } else {
+                            applyFilter(filtered, result, sectioned == mSectioned ? sections : null);
+                            changes.dispatchTo(mChangeReceiver);
+                        }
+                        if (start != 0) {
+                            ViewsMetrics.getListener().onChoicesSet(ViewsMetrics.since(start), itemChoices.size());
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * @return the multiple selection of oldItems, moved to the positions of the same ids in newItems
+     */
+    private static <T extends SpinnerDialogItem> MultiSelection remapSelection(MultiSelection selection, List<T> oldItems,
+                                                                               List<T> newItems, IdPositionIndex newIndex) {
+        MultiSelection remapped = new MultiSelection(newItems.size());
+        for (int position : selection.getSelectedPositions()) {
+            T item = oldItems.get(position);
+            int newPosition = item != null ? newIndex.getPosition(item.getId()) : -1;
+            if (newPosition >= 0) {
+                remapped.setSelected(newPosition, true);
+            }
+        }
+        return remapped;
+    }
+
+    private void cancelPendingSubmit() {
+        if (mPendingSubmit != null) {
+            mPendingSubmit.cancel();
+            mPendingSubmit = null;
+        }
+    }
+
+    /**
+     * Matches the items by id with a single hash pass and computes the row changes.
+     */
+    private static ChangeSet diffById(List<? extends CharSequence> oldIds, final List<? extends CharSequence> oldTitles,
+                                      List<? extends CharSequence> newIds, final List<? extends CharSequence> newTitles) {
+        IdPositionIndex oldIndex = new IdPositionIndex(oldIds);
+        boolean[] matched = new boolean[oldIds.size()];
+        int[] oldIndexOfNew = new int[newIds.size()];
+        for (int j = 0; j < oldIndexOfNew.length; j++) {
+            CharSequence id = newIds.get(j);
+            int i = oldIndex.getPosition(id != null ? id.toString() : null);
+            if (i >= 0 && !matched[i]) {
+                matched[i] = true;
+                oldIndexOfNew[j] = i;
+            } else {
+                oldIndexOfNew[j] = -1;
             }
         }
+        return ChangeSet.ofMatches(oldIds.size(), oldIndexOfNew, new ChangeSet.Contents() {
+            @Override
+            public boolean areContentsTheSame(int oldIndex, int newIndex) {
+                return TextUtils.equals(oldTitles.get(oldIndex), newTitles.get(newIndex));
+            }
+        });
+    }
+
+    /**
+     * Enables the asynchronous filter mode : {@link #setFilterChoice(String)} searches the list
+     * on the filter executor, drops the queries superseded by a newer one and publishes
+     * the result on the main thread with row-level notifications.
+     *
+     * @param asyncFilter true to filter in background
+     */
+    public void setAsyncFilter(boolean asyncFilter) {
+        mAsyncFilter = asyncFilter;
+    }
+
+    /**
+     * @param executor executor used by the asynchronous filter mode, null for the shared default one
+     */
+    public void setFilterExecutor(Executor executor) {
+        mFilterExecutor = executor;
+    }
+
+    /**
+     * @param maxEntries number of recent filter results kept for the current list, 0 to disable the cache
+     */
+    public void setFilterCacheSize(int maxEntries) {
+        mFilterCacheSize = maxEntries;
+        mFilterCache.setMaxSize(maxEntries, QueryResultCache.DEFAULT_MAX_POSITIONS);
+    }
+
+    /**
+     * @return the number of filter queries answered from the result cache
+     */
+    public int getFilterCacheHitCount() {
+        return mRetiredCacheHits + mFilterCache.getHitCount();
+    }
+
+    /**
+     * @return the number of filter queries which had to be searched
+     */
+    public int getFilterCacheMissCount() {
+        return mRetiredCacheMisses + mFilterCache.getMissCount();
+    }
+
+    public void setFilterChoice(String value) {
+        long start = ViewsMetrics.start();
+        mFilterQuery = value;
+        cancelPendingFilter();
+        reindexIfChanged();
+        if (mAsyncFilter) {
+            filterAsync(value, start);
+        } else {
+            filterNow(value, start);
+        }
+    }
+
+    /**
+     * @param start value of {@link ViewsMetrics#start()} when the query was set, 0 to not report the filter
+     */
+    private void filterNow(String value, long start) {
+        FilterResult result = search(value, mSearchMode, mTitleFilter, mMatcher, mCodeIndex, mCodeMatches, mRankedLimit, null);
+        int[] positions = result != null ? result.mPositions : null;
+        List<T> filtered = positions == null ? mList : collect(mList, positions);
+        ChangeSet changes = diffFilter(mFilteredPositions, mListFiltered.size(), positions, filtered.size(),
+                mList.size(), mSearchMode == SEARCH_MODE_RANKED || mMatchScores != null);
+        applyFilter(filtered, result, null);
+        changes.dispatchTo(mChangeReceiver);
+        reportFilter(start, result);
+    }
+
+    /**
+     * Filters the current list again with a full rebind, when the displayed rows belong to a previous list
+     */
+    private void refilterAll() {
+        FilterResult result = search(mFilterQuery, mSearchMode, mTitleFilter, mMatcher, mCodeIndex, null, mRankedLimit, null);
+        int[] positions = result != null ? result.mPositions : null;
+        applyFilter(positions == null ? mList : collect(mList, positions), result, null);
         notifyDataSetChanged();
     }
 
+    /**
+     * @param ranked true if one of the two results is not in list order
+     * @return the row changes between two filter results of the same list
+     */
+    private static ChangeSet diffFilter(int[] oldPositions, int oldCount, int[] newPositions, int newCount,
+                                        int sourceCount, boolean ranked) {
+        return ranked
+                ? ChangeSet.ofPositions(oldPositions, oldCount, newPositions, newCount, sourceCount)
+                : ChangeSet.ofSortedPositions(oldPositions, oldCount, newPositions, newCount);
+    }
+
+    private void reportFilter(long start, FilterResult result) {
+        if (start != 0) {
+            ViewsMetrics.getListener().onFilter(ViewsMetrics.since(start),
+                    result != null ? result.mScannedCount : 0, mListFiltered.size());
+        }
+    }
+
+    private void filterAsync(final String value, final long start) {
+        final CancellationToken token = new CancellationToken();
+        final TitleFilter filter = mTitleFilter;
+        final FuzzyMatcher matcher = mMatcher;
+        final CodeIndex codeIndex = mCodeIndex;
+        final CodeIndex.Matches previousCodes = mCodeMatches;
+        final List<T> source = mList;
+        final Choices<T> choices = mChoices;
+        final int[] previousPositions = mFilteredPositions;
+        final int previousCount = mListFiltered.size();
+        final boolean sectioned = mSectioned;
+        final int searchMode = mSearchMode;
+        final boolean previousRanked = mMatchScores != null;
+        final int rankedLimit = mRankedLimit;
+        mPendingFilter = token;
+        getFilterExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                if (token.isCancelled()) {
+                    return;
+                }
+                final FilterResult result = search(value, searchMode, filter, matcher, codeIndex, previousCodes, rankedLimit, token);
+                if (token.isCancelled()) {
+                    return;
+                }
+                final int[] positions = result != null ? result.mPositions : null;
+                final List<T> filtered = positions == null ? source : collect(choices.mItems, positions);
+                final ChangeSet changes = diffFilter(previousPositions, previousCount, positions, filtered.size(),
+                        choices.mItems.size(), searchMode == SEARCH_MODE_RANKED || previousRanked);
+                final List<? extends CharSequence> titles = column(choices.mTitles, positions);
+                final SectionIndex sections = sectioned ? SectionIndex.of(titles) : null;
+                mTitleLayouts.prefetch(titles);
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (token != mPendingFilter || token.isCancelled()) {
+                            return;
+                        }
+                        mPendingFilter = null;
+                        applyFilter(filtered, result, sectioned == mSectioned ? sections : null);
+                        changes.dispatchTo(mChangeReceiver);
+                        reportFilter(start, result);
+                    }
+                });
+            }
+        });
+    }
+
+    private void cancelPendingFilter() {
+        if (mPendingFilter != null) {
+            mPendingFilter.cancel();
+            mPendingFilter = null;
+        }
+    }
+
+    /**
+     * @param query      filter query
+     * @param searchMode one of the SEARCH_MODE constants
+     * @return the matches of query, null for an empty query or if token was cancelled
+     */
+    private static FilterResult search(String query, int searchMode, TitleFilter filter, FuzzyMatcher matcher,
+                                       CodeIndex codeIndex, CodeIndex.Matches previousCodes, int rankedLimit,
+                                       CancellationToken token) {
+        if (isEmptyQuery(query)) {
+            return null;
+        }
+        if (searchMode == SEARCH_MODE_RANKED) {
+            FuzzyMatcher.Matches matches = matcher.search(query, rankedLimit, token);
+            return matches != null
+                    ? new FilterResult(matches.getPositions(), matches.getScores(), matches.getScannedCount()) : null;
+        }
+        if (searchMode == SEARCH_MODE_CODE_PREFIX) {
+            CodeIndex.Matches matches = codeIndex.searchPrefix(query, previousCodes);
+            return new FilterResult(matches.getPositions(), null, matches.getScannedCount(), matches);
+        }
+        int[] positions = filter.filter(query, token);
+        return positions != null ? new FilterResult(positions, null, filter.getLastScannedCount()) : null;
+    }
+
+    /**
+     * @param mode {@link #SEARCH_MODE_SUBSTRING}, {@link #SEARCH_MODE_RANKED} or {@link #SEARCH_MODE_CODE_PREFIX};
+     *             the current filter is searched again
+     */
+    public void setSearchMode(int mode) {
+        if (mode != mSearchMode) {
+            mSearchMode = mode;
+            setFilterChoice(mFilterQuery);
+        }
+    }
+
+    public int getSearchMode() {
+        return mSearchMode;
+    }
+
+    /**
+     * @param limit maximum number of rows kept by a ranked search
+     */
+    public void setRankedLimit(int limit) {
+        mRankedLimit = limit;
+    }
+
+    /**
+     * @param position position in the filtered list
+     * @return the ranked search score of the row, 0 when the filter is not ranked
+     * @see FuzzyMatcher
+     */
+    public int getMatchScore(int position) {
+        return mMatchScores != null ? mMatchScores[position] : 0;
+    }
+
+    /**
+     * @param result   matches of the filter, null when nothing is filtered out
+     * @param sections sections of filtered computed on the filter executor, null to compute them if needed
+     */
+    private void applyFilter(List<T> filtered, FilterResult result, SectionIndex sections) {
+        int[] positions = result != null ? result.mPositions : null;
+        mListFiltered = filtered;
+        mFilteredPositions = positions;
+        mMatchScores = result != null ? result.mScores : null;
+        mCodeMatches = result != null ? result.mCodeMatches : null;
+        mIdIndex.setFiltered(positions);
+        mSelectedPosition = findSelectedPosition();
+        updateSections(sections);
+    }
+
+    /**
+     * Enables the sectioned mode : the alphabetical sections of the filtered rows are computed
+     * each time the list is set or filtered, on the filter executor in asynchronous mode, so that
+     * a fast-scroll index can jump to a section without scrolling through the rows before it.
+     * A section is a run of rows whose titles start with the same letter : the list must be sorted
+     * by title, a letter appears in several sections otherwise. The adapter observers, such as the
+     * index view, are notified when the mode changes.
+     *
+     * @param sectioned true to compute the sections
+     * @see com.android.jmaxime.views.FastScrollIndexView
+     */
+    public void setSectioned(boolean sectioned) {
+        if (sectioned == mSectioned) {
+            return;
+        }
+        mSectioned = sectioned;
+        updateSections(null);
+        /* the rows are unchanged, only their check marks are rebound */
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
+    }
+
+    /**
+     * @return the sections of the filtered rows, null if the sectioned mode is off
+     */
+    public SectionIndex getSectionIndex() {
+        return mSections;
+    }
+
+    @Override
+    public Object[] getSections() {
+        return mSections != null ? mSections.getLabels() : new Object[0];
+    }
+
+    @Override
+    public int getPositionForSection(int sectionIndex) {
+        return mSections != null ? Math.max(0, mSections.getPositionForSection(sectionIndex)) : 0;
+    }
+
+    @Override
+    public int getSectionForPosition(int position) {
+        return mSections != null ? Math.max(0, mSections.getSectionForPosition(position)) : 0;
+    }
+
+    private void updateSections(SectionIndex precomputed) {
+        if (!mSectioned) {
+            mSections = null;
+        } else if (precomputed != null) {
+            mSections = precomputed;
+        } else {
+            mSections = SectionIndex.of(titlesOf(mListFiltered));
+        }
+    }
+
+    private static boolean isEmptyQuery(String value) {
+        return TextNormalizer.fold(value).isEmpty();
+    }
+
+    /**
+     * @return the items of source at positions; a view when source is an {@link ItemColumns},
+     * so that the items are not created
+     */
+    private static <T> List<T> collect(List<T> source, int[] positions) {
+        if (source instanceof ItemColumns) {
+            return new ColumnsSubList<>(source, positions);
+        }
+        List<T> list = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            list.add(source.get(position));
+        }
+        return list;
+    }
+
+    private Executor getFilterExecutor() {
+        return mFilterExecutor != null ? mFilterExecutor : FilterExecutorHolder.EXECUTOR;
+    }
+
+    private static class FilterExecutorHolder {
+        static final Executor EXECUTOR = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "SpinnerResourceAdapter-filter");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * The titles of a list, read on demand
+     */
+    static <T extends SpinnerDialogItem> List<? extends CharSequence> titlesOf(List<T> items) {
+        return items instanceof ItemColumns ? ((ItemColumns) items).getTitles() : new TitleColumn<>(items);
+    }
+
+    /**
+     * @return the values of column at positions, or column itself when positions is null
+     */
+    private static List<? extends CharSequence> column(List<? extends CharSequence> column, int[] positions) {
+        return positions == null ? column : new SubColumn(column, positions);
+    }
+
+    /**
+     * Items, titles, codes and ids of a list of choices, copied on the main thread so that the filter
+     * executor never reads the list of the caller. An {@link ItemColumns} list cannot be changed,
+     * its columns are read as they are.
+     */
+    private static final class Choices<T extends SpinnerDialogItem> {
+
+        final List<T> mItems;
+        final List<? extends CharSequence> mTitles;
+        final List<? extends CharSequence> mCodes;
+        final List<? extends CharSequence> mIds;
+        /* list copied in mItems */
+        private final List<T> mSource;
+        /* fail-fast iterator of mSource, its modification stamp; null when mSource is not an ArrayList */
+        private final ListIterator<T> mStamp;
+
+        Choices(List<T> list) {
+            mSource = list;
+            if (list instanceof ItemColumns) {
+                mItems = list;
+                mTitles = ((ItemColumns) list).getTitles();
+                mCodes = ((ItemColumns) list).getCodes();
+                mIds = ((ItemColumns) list).getIds();
+                mStamp = null;
+                return;
+            }
+            /* an iterator at the end of a non-empty list can step back and forth without moving */
+            mStamp = list.getClass() == ArrayList.class && !list.isEmpty() ? list.listIterator(list.size()) : null;
+            mItems = new ArrayList<>(list);
+            int size = mItems.size();
+            String[] titles = new String[size];
+            String[] codes = new String[size];
+            String[] ids = new String[size];
+            for (int i = 0; i < size; i++) {
+                T item = mItems.get(i);
+                if (item != null) {
+                    titles[i] = item.getTitle();
+                    codes[i] = item.getCode();
+                    ids[i] = item.getId();
+                }
+            }
+            mTitles = Arrays.asList(titles);
+            mCodes = Arrays.asList(codes);
+            mIds = Arrays.asList(ids);
+        }
+
+        /**
+         * @return true if list does not hold the copied items anymore, in the same order; for the
+         * copied ArrayList, true if it was structurally modified since it was copied
+         */
+        boolean isStale(List<T> list) {
+            if (list == mItems) {
+                return false;
+            }
+            int size = mItems.size();
+            if (list.size() != size) {
+                return true;
+            }
+            if (list == mSource && mStamp != null) {
+                try {
+                    mStamp.previous();
+                    mStamp.next();
+                    return false;
+                } catch (ConcurrentModificationException e) {
+                    return true;
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                if (list.get(i) != mItems.get(i)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Filtered view of an {@link ItemColumns} list, itself readable by columns
+     */
+    private static class ColumnsSubList<T> extends AbstractList<T> implements ItemColumns, RandomAccess {
+
+        private final List<T> mSource;
+        private final int[] mPositions;
+
+        ColumnsSubList(List<T> source, int[] positions) {
+            mSource = source;
+            mPositions = positions;
+        }
+
+        @Override
+        public T get(int index) {
+            return mSource.get(mPositions[index]);
+        }
+
+        @Override
+        public int size() {
+            return mPositions.length;
+        }
+
+        @Override
+        public List<? extends CharSequence> getTitles() {
+            return new SubColumn(((ItemColumns) mSource).getTitles(), mPositions);
+        }
+
+        @Override
+        public List<? extends CharSequence> getCodes() {
+            return new SubColumn(((ItemColumns) mSource).getCodes(), mPositions);
+        }
+
+        @Override
+        public List<? extends CharSequence> getIds() {
+            return new SubColumn(((ItemColumns) mSource).getIds(), mPositions);
+        }
+    }
+
+    private static class SubColumn extends AbstractList<CharSequence> implements RandomAccess {
+
+        private final List<? extends CharSequence> mColumn;
+        private final int[] mPositions;
+
+        SubColumn(List<? extends CharSequence> column, int[] positions) {
+            mColumn = column;
+            mPositions = positions;
+        }
+
+        @Override
+        public CharSequence get(int index) {
+            return mColumn.get(mPositions[index]);
+        }
+
+        @Override
+        public int size() {
+            return mPositions.length;
+        }
+    }
+
+    private static class TitleColumn<T extends SpinnerDialogItem> extends AbstractList<CharSequence> {
+
+        private final List<T> mItems;
+
+        TitleColumn(List<T> items) {
+            mItems = items;
+        }
+
+        @Override
+        public CharSequence get(int index) {
+            T item = mItems.get(index);
+            return item != null ? item.getTitle() : null;
+        }
+
+        @Override
+        public int size() {
+            return mItems.size();
+        }
+    }
+
+    /**
+     * Counts the rows bound from a notification to the end of the layout pass of the list which follows it.
+     * The notifications handled without layout pass, such as the item changes of a list with a fixed
+     * size, are reported with the next one. While {@link ViewsMetrics#isEnabled()} is false the
+     * notifications are ignored and no layout listener is registered, so the layout passes cost nothing.
+     */
+    private class ReboundObserver extends RecyclerView.AdapterDataObserver implements View.OnLayoutChangeListener {
+
+        @Override
+        public void onChanged() {
+            onNotified();
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            onNotified();
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            onNotified();
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            onNotified();
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            onNotified();
+        }
+
+        private void onNotified() {
+            if (!ViewsMetrics.isEnabled()) {
+                return;
+            }
+            if (!mReboundReportPending) {
+                mBoundSinceNotify = 0;
+                mReboundReportPending = true;
+                for (int i = 0; i < mRecyclerViews.size(); i++) {
+                    mRecyclerViews.get(i).addOnLayoutChangeListener(this);
+                }
+            }
+        }
+
+        @Override
+        public void onLayoutChange(View v, int left, int top, int right, int bottom,
+                                   int oldLeft, int oldTop, int oldRight, int oldBottom) {
+            if (mReboundReportPending) {
+                mReboundReportPending = false;
+                ViewsMetrics.getListener().onRowsRebound(mBoundSinceNotify);
+            }
+            for (int i = 0; i < mRecyclerViews.size(); i++) {
+                mRecyclerViews.get(i).removeOnLayoutChangeListener(this);
+            }
+        }
+    }
+
+    /**
+     * Rows kept by a search, whatever the search mode
+     */
+    private static final class FilterResult {
+
+        /* list positions of the kept rows, in display order */
+        final int[] mPositions;
+        /* scores of the kept rows in ranked mode, null otherwise */
+        final int[] mScores;
+        final int mScannedCount;
+        /* matches of the code prefix mode, narrowed by the next prefix ; null otherwise */
+        final CodeIndex.Matches mCodeMatches;
+
+        FilterResult(int[] positions, int[] scores, int scannedCount) {
+            this(positions, scores, scannedCount, null);
+        }
+
+        FilterResult(int[] positions, int[] scores, int scannedCount, CodeIndex.Matches codeMatches) {
+            mPositions = positions;
+            mScores = scores;
+            mScannedCount = scannedCount;
+            mCodeMatches = codeMatches;
+        }
+    }
+
+    private class AdapterChangeReceiver implements ChangeSet.Receiver {
+
+        @Override
+        public void onInserted(int position, int count) {
+            notifyItemRangeInserted(position, count);
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            notifyItemRangeRemoved(position, count);
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            notifyItemMoved(fromPosition, toPosition);
+        }
+
+        @Override
+        public void onChanged(int position, int count) {
+            notifyItemRangeChanged(position, count);
+        }
+    }
+
     static class ResourceHolder<T extends SpinnerDialogItem> extends RecyclerView.ViewHolder {
 
-        private final CheckedTextView mCheckedTextView;
-        private final String mEmpty;
+        private final CheckedTitleRowView mRowView;
         private Drawable mDrawable;
 
-        ResourceHolder(View itemView, String empty) {
+        /**
+         * The holder does not depend on the adapter which created it, so that it can be recycled
+         * by any adapter through a shared {@link SpinnerRowPool}.
+         */
+        ResourceHolder(View itemView) {
             super(itemView);
-            mEmpty = empty;
-            mCheckedTextView = itemView.findViewById(R.id.check_text_choice);
+            mRowView = itemView.findViewById(R.id.check_text_choice);
         }
 
-        void onBind(T item, boolean isSelected) {
+        /**
+         * @param empty title of the empty choice, shown when item is null
+         */
+        void onBind(T item, boolean isSelected, CharSequence empty) {
+            onBind(item, isSelected, empty, null);
+        }
+
+        /**
+         * @param layouts cache of the title layouts built ahead of time, may be null
+         */
+        void onBind(T item, boolean isSelected, CharSequence empty, TitleLayoutCache layouts) {
+            if (layouts != null) {
+                layouts.setSpec(mRowView.getTitlePaint(), mRowView.getTitleWidth(), mRowView.isTitleRtl());
+            }
             if (item == null) {
-                mCheckedTextView.setText(mEmpty);
-                mDrawable = mCheckedTextView.getCheckMarkDrawable();
-                mCheckedTextView.setCheckMarkDrawable(null);
+                mRowView.setTitle(empty, null);
+                mDrawable = mRowView.getCheckMarkDrawable();
+                mRowView.setCheckMarkDrawable(null);
             } else {
-                mCheckedTextView.setText(item.getTitle());
-                mCheckedTextView.setChecked(isSelected);
-                if (mCheckedTextView.getCheckMarkDrawable() == null) {
-                    mCheckedTextView.setCheckMarkDrawable(mDrawable);
+                mRowView.setTitle(item.getTitle(), layouts != null ? layouts.get(item.getTitle()) : null);
+                mRowView.setChecked(isSelected);
+                if (mRowView.getCheckMarkDrawable() == null) {
+                    mRowView.setCheckMarkDrawable(mDrawable);
                 }
             }
         }
+
+        void setCheckMark(Drawable checkMark) {
+            mRowView.setCheckMarkDrawable(checkMark);
+        }
+
+        void onBindSelection(boolean isSelected) {
+            mRowView.setChecked(isSelected);
+        }
+
+        /**
+         * Binds a row whose item is not loaded yet
+         */
+        void onBindPlaceholder() {
+            mRowView.setTitle(null, null);
+            mRowView.setChecked(false);
+        }
     }
 }
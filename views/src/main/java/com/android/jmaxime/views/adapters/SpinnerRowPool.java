@@ -0,0 +1,124 @@
+package com.android.jmaxime.views.adapters;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.os.SystemClock;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.widget.FrameLayout;
+
+/**
+ * {@link RecyclerView.RecycledViewPool} shared by the spinner dialogs of a screen.
+ * <p>
+ * The pool outlives a single dialog : {@link #attach(RecyclerView)} makes the list give its rows
+ * back to the pool when it is detached, so the next dialog reuses them instead of inflating.
+ * {@link #prewarm(Context, RecyclerView.Adapter, int, int)} fills the pool before the first dialog :
+ * rows are created by the adapter on the main thread, views are not thread safe, a few at a time
+ * while the main thread is idle so that no frame waits for them.
+ * <p>
+ * The rows keep a reference to the context they were inflated with, clear the pool
+ * or drop it with the screen.
+ */
+public class SpinnerRowPool extends RecyclerView.RecycledViewPool {
+
+    /**
+     * Enough rows to fill a dialog on a tall screen
+     */
+    public static final int DEFAULT_MAX_ROWS = 20;
+    /**
+     * Time spent creating rows in one idle time of the main thread, a part of a frame
+     */
+    private static final long SLICE_MILLIS = 4;
+
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private final int mMaxRows;
+
+    public SpinnerRowPool() {
+        this(DEFAULT_MAX_ROWS);
+    }
+
+    /**
+     * @param maxRows rows kept for each view type
+     */
+    public SpinnerRowPool(int maxRows) {
+        mMaxRows = maxRows;
+        setMaxRecycledViews(SpinnerResourceAdapter.CHOICE_MODE_SINGLE, maxRows);
+        setMaxRecycledViews(SpinnerResourceAdapter.CHOICE_MODE_MULTIPLE, maxRows);
+    }
+
+    /**
+     * Makes recyclerView use this pool and recycle its rows in it when it is detached from its window.
+     */
+    public void attach(RecyclerView recyclerView) {
+        recyclerView.setRecycledViewPool(this);
+        RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+        if (layoutManager instanceof LinearLayoutManager) {
+            ((LinearLayoutManager) layoutManager).setRecycleChildrenOnDetach(true);
+        }
+    }
+
+    /**
+     * Fills the pool with up to count rows of viewType during the next idle times of the main thread,
+     * {@link #SLICE_MILLIS} at most each time. Must be called on the main thread.
+     *
+     * @param context  themed context the rows are inflated with, usually the activity
+     * @param adapter  adapter creating the rows, for example a {@link SpinnerResourceAdapter}
+     * @param viewType {@link SpinnerResourceAdapter#CHOICE_MODE_SINGLE} or {@link SpinnerResourceAdapter#CHOICE_MODE_MULTIPLE}
+     * @param count    number of rows wanted in the pool, at most the max rows of the pool : the prewarm
+     *                 stops when the pool drops a row, for example of a view type whose max was lowered
+     *                 with {@link #setMaxRecycledViews(int, int)}
+     */
+    public void prewarm(Context context, RecyclerView.Adapter<?> adapter, int viewType, int count) {
+        new Prewarm(new FrameLayout(context), adapter, viewType, Math.min(count, mMaxRows)).schedule();
+    }
+
+    /**
+     * Creates rows in the idle times of the main thread until the pool holds enough of them
+     */
+    private class Prewarm implements MessageQueue.IdleHandler, Runnable {
+
+        private final FrameLayout mParent;
+        private final RecyclerView.Adapter<?> mAdapter;
+        private final int mViewType;
+        private final int mCount;
+
+        Prewarm(FrameLayout parent, RecyclerView.Adapter<?> adapter, int viewType, int count) {
+            mParent = parent;
+            mAdapter = adapter;
+            mViewType = viewType;
+            mCount = count;
+        }
+
+        void schedule() {
+            Looper.getMainLooper().getQueue().addIdleHandler(this);
+        }
+
+        @Override
+        public boolean queueIdle() {
+            long end = SystemClock.uptimeMillis() + SLICE_MILLIS;
+            int count = getRecycledViewCount(mViewType);
+            while (count < mCount) {
+                putRecycledView(mAdapter.createViewHolder(mParent, mViewType));
+                int grown = getRecycledViewCount(mViewType);
+                if (grown == count) {
+                    /* the pool is full for this view type, it dropped the row */
+                    break;
+                }
+                count = grown;
+                if (SystemClock.uptimeMillis() >= end) {
+                    /* an idle handler kept registered only runs again after a message : wait for the next idle time */
+                    mMainHandler.post(this);
+                    break;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void run() {
+            schedule();
+        }
+    }
+}
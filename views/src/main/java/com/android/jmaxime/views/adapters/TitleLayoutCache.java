@@ -0,0 +1,108 @@
+package com.android.jmaxime.views.adapters;
+
+import android.text.Layout;
+import android.text.TextPaint;
+import android.util.LruCache;
+
+import com.android.jmaxime.views.CheckedTitleRowView;
+
+import java.util.List;
+
+/**
+ * Text layouts of the row titles, built on the filter executor for the first rows of each result
+ * so that binding a {@link CheckedTitleRowView} does not measure its text on the main thread.
+ * <p>
+ * The layouts depend on the paint, the width and the direction of the rows, learned from the first
+ * measured row with {@link #setSpec(TextPaint, int, boolean)} ; nothing is built before. Each layout is
+ * kept with the spec it was built for, a layout built for a previous spec is never returned.
+ * <p>
+ * Only the first {@link #PREFETCH_ROWS} rows of a result are built ahead of time : the rows reached
+ * by scrolling further, or not cached anymore, are laid out on the main thread when they are measured.
+ */
+final class TitleLayoutCache {
+
+    /**
+     * Rows laid out ahead of time after each filter, about two dialog heights
+     */
+    static final int PREFETCH_ROWS = 40;
+    private static final int MAX_LAYOUTS = 256;
+
+    private final LruCache<String, Entry> mLayouts = new LruCache<>(MAX_LAYOUTS);
+    private volatile Spec mSpec;
+
+    /**
+     * Main thread : updates the paint and the width of the rows, clears the layouts if they changed.
+     */
+    void setSpec(TextPaint paint, int width, boolean rtl) {
+        Spec spec = mSpec;
+        if (width <= 0 || (spec != null && spec.matches(paint, width, rtl))) {
+            return;
+        }
+        mSpec = new Spec(new TextPaint(paint), width, rtl);
+        mLayouts.evictAll();
+    }
+
+    /**
+     * @return the layout of title for the current spec, null if it is not built
+     */
+    Layout get(String title) {
+        Spec spec = mSpec;
+        Entry entry = title != null ? mLayouts.get(title) : null;
+        return entry != null && entry.mSpec == spec ? entry.mLayout : null;
+    }
+
+    /**
+     * Any thread : builds the layouts of the first {@link #PREFETCH_ROWS} titles which are not cached yet.
+     *
+     * @param titles titles in display order, null entries are skipped
+     */
+    void prefetch(List<? extends CharSequence> titles) {
+        Spec spec = mSpec;
+        if (spec == null) {
+            return;
+        }
+        int count = Math.min(titles.size(), PREFETCH_ROWS);
+        for (int i = 0; i < count; i++) {
+            CharSequence title = titles.get(i);
+            if (title == null) {
+                continue;
+            }
+            Entry entry = mLayouts.get(title.toString());
+            if (entry == null || entry.mSpec != spec) {
+                Layout layout = CheckedTitleRowView.createTitleLayout(title, spec.mPaint, spec.mWidth, spec.mRtl);
+                mLayouts.put(title.toString(), new Entry(spec, layout));
+            }
+        }
+    }
+
+    private static class Entry {
+
+        final Spec mSpec;
+        final Layout mLayout;
+
+        Entry(Spec spec, Layout layout) {
+            mSpec = spec;
+            mLayout = layout;
+        }
+    }
+
+    private static class Spec {
+
+        /* copy of the row paint, never modified so it can be used by any thread */
+        final TextPaint mPaint;
+        final int mWidth;
+        final boolean mRtl;
+
+        Spec(TextPaint paint, int width, boolean rtl) {
+            mPaint = paint;
+            mWidth = width;
+            mRtl = rtl;
+        }
+
+        boolean matches(TextPaint paint, int width, boolean rtl) {
+            return width == mWidth && rtl == mRtl && paint.getTextSize() == mPaint.getTextSize()
+                    && paint.getTypeface() == mPaint.getTypeface() && paint.getColor() == mPaint.getColor()
+                    && paint.getFlags() == mPaint.getFlags() && paint.getLetterSpacing() == mPaint.getLetterSpacing();
+        }
+    }
+}
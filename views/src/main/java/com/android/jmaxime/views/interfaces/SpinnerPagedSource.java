@@ -0,0 +1,27 @@
+package com.android.jmaxime.views.interfaces;
+
+import java.util.List;
+
+/**
+ * Source of the items of a {@link com.android.jmaxime.views.adapters.SpinnerPagedAdapter},
+ * typically backed by a local database. The filter is applied by the source itself,
+ * e.g. with a <code>LIKE</code> clause.
+ * <p>
+ * Both methods are called on a worker thread.
+ */
+public interface SpinnerPagedSource<T extends SpinnerDialogItem> {
+
+    /**
+     * @param filter current filter, "" for none
+     * @return the number of items matching the filter
+     */
+    int count(String filter);
+
+    /**
+     * @param filter current filter, "" for none
+     * @param offset position of the first item to load
+     * @param limit  maximum number of items to load
+     * @return the items matching the filter in [offset, offset + limit)
+     */
+    List<T> loadRange(String filter, int offset, int limit);
+}
@@ -0,0 +1,124 @@
+package com.android.jmaxime.views;
+
+import android.content.Context;
+import android.os.Parcel;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+
+import com.android.jmaxime.views.core.MetricsAggregator;
+import com.android.jmaxime.views.core.ViewsMetrics;
+import com.android.jmaxime.views.interfaces.SpinnerDialogItem;
+
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+
+/**
+ * Shared setup of the Robolectric budget tests : a themed context, a list laid out at a fixed size
+ * and the {@link ViewsMetrics} counters the budgets are checked against.
+ * <p>
+ * The lists are measured and laid out by hand, without window nor item animator, so every
+ * layout pass happens where the test asks for it and the counts do not depend on frame timing.
+ */
+public final class BudgetHarness {
+
+    public static final int WIDTH = 480;
+    public static final int HEIGHT = 800;
+
+    private BudgetHarness() {
+    }
+
+    public static Context themedContext() {
+        return new ContextThemeWrapper(RuntimeEnvironment.application, R.style.Theme_AppCompat_Light);
+    }
+
+    /**
+     * Installs a new aggregator as {@link ViewsMetrics} listener, remove it with {@link #stopMetrics()}
+     */
+    public static MetricsAggregator startMetrics() {
+        MetricsAggregator metrics = new MetricsAggregator();
+        ViewsMetrics.setListener(metrics);
+        return metrics;
+    }
+
+    public static void stopMetrics() {
+        ViewsMetrics.setListener(null);
+    }
+
+    /**
+     * @return a vertical list showing adapter, not laid out yet
+     */
+    public static RecyclerView newList(Context context, RecyclerView.Adapter<?> adapter) {
+        RecyclerView recyclerView = new RecyclerView(context);
+        recyclerView.setLayoutManager(new LinearLayoutManager(context));
+        recyclerView.setItemAnimator(null);
+        recyclerView.setAdapter(adapter);
+        return recyclerView;
+    }
+
+    /**
+     * Runs the pending main thread tasks, then measures and lays out recyclerView.
+     */
+    public static void layout(RecyclerView recyclerView) {
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        recyclerView.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        recyclerView.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    /**
+     * @return count items titled from a small set of words, so that short queries match runs of rows
+     */
+    public static ArrayList<Item> items(int count) {
+        String[] words = {"Alpha", "Bravo", "Charlie", "Delta", "Echo", "Foxtrot", "Golf", "Hotel"};
+        ArrayList<Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String title = words[i % words.length] + " " + words[(i / words.length) % words.length] + " " + i;
+            items.add(new Item("id-" + i, "CODE" + i, title));
+        }
+        return items;
+    }
+
+    public static class Item implements SpinnerDialogItem {
+
+        private final String mId;
+        private final String mCode;
+        private final String mTitle;
+
+        public Item(String id, String code, String title) {
+            mId = id;
+            mCode = code;
+            mTitle = title;
+        }
+
+        @Override
+        public String getTitle() {
+            return mTitle;
+        }
+
+        @Override
+        public String getCode() {
+            return mCode;
+        }
+
+        @Override
+        public String getId() {
+            return mId;
+        }
+
+        @Override
+        public int describeContents() {
+            return 0;
+        }
+
+        @Override
+        public void writeToParcel(Parcel dest, int flags) {
+            dest.writeString(mId);
+            dest.writeString(mCode);
+            dest.writeString(mTitle);
+        }
+    }
+}
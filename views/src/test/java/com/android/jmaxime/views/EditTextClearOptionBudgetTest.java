@@ -0,0 +1,95 @@
+package com.android.jmaxime.views;
+
+import android.graphics.drawable.Drawable;
+
+import com.android.jmaxime.views.core.MetricsAggregator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Drawable budget of {@link EditTextClearOption} while typing : the compound drawables are only
+ * replaced when the field switches between empty and non-empty, and the clear drawable is loaded once.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class EditTextClearOptionBudgetTest {
+
+    private static final String TYPED = "randonnée";
+
+    private EditTextClearOption mEditText;
+    private MetricsAggregator mMetrics;
+
+    @Before
+    public void setUp() {
+        mEditText = new EditTextClearOption(BudgetHarness.themedContext());
+        mMetrics = BudgetHarness.startMetrics();
+    }
+
+    @After
+    public void tearDown() {
+        BudgetHarness.stopMetrics();
+    }
+
+    @Test
+    public void typing_updatesTheDrawablesOnce() {
+        type(TYPED);
+
+        assertEquals(1, mMetrics.snapshot(true).getDrawableUpdateCount());
+        assertNotNull(mEditText.getCompoundDrawables()[2]);
+    }
+
+    @Test
+    public void typedCharacter_afterTheFirst_updatesNoDrawable() {
+        type(TYPED.substring(0, 1));
+        mMetrics.snapshot(true);
+        for (int i = 1; i < TYPED.length(); i++) {
+            type(TYPED.substring(i, i + 1));
+
+            assertEquals(0, mMetrics.snapshot(true).getDrawableUpdateCount());
+        }
+    }
+
+    @Test
+    public void clearingAndTypingAgain_reusesTheLoadedDrawable() {
+        type(TYPED);
+        Drawable clear = mEditText.getCompoundDrawables()[2];
+        mEditText.setText("");
+        assertNull(mEditText.getCompoundDrawables()[2]);
+        type(TYPED);
+
+        assertSame(clear, mEditText.getCompoundDrawables()[2]);
+        assertEquals(3, mMetrics.snapshot(true).getDrawableUpdateCount());
+    }
+
+    @Test
+    public void deletingCharacters_updatesTheDrawablesWhenEmptyOnly() {
+        type(TYPED);
+        mMetrics.snapshot(true);
+        for (int i = TYPED.length() - 1; i > 0; i--) {
+            mEditText.getText().delete(i, i + 1);
+            assertEquals(0, mMetrics.snapshot(true).getDrawableUpdateCount());
+        }
+        mEditText.getText().delete(0, 1);
+
+        assertEquals(1, mMetrics.snapshot(true).getDrawableUpdateCount());
+    }
+
+    /**
+     * Appends the characters one by one, as the keyboard does
+     */
+    private void type(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            mEditText.append(text.substring(i, i + 1));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.android.jmaxime.views;
+
+import android.content.Context;
+import android.os.Bundle;
+
+import com.android.jmaxime.views.interfaces.SpinnerDialogItem;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link SpinnerItemRegistry} refuses the lists it could not read back and cleans its directory.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class SpinnerItemRegistryTest {
+
+    private static final String KEY = "items";
+
+    @Test
+    public void putItems_rejectsMixedClasses() {
+        List<SpinnerDialogItem> items = new ArrayList<SpinnerDialogItem>(BudgetHarness.items(2));
+        items.add(new BudgetHarness.Item("id", "code", "title") {
+        });
+        try {
+            SpinnerItemRegistry.putItems(RuntimeEnvironment.application, new Bundle(), KEY, items);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // the anonymous subclass would be read back with the creator of Item
+        }
+    }
+
+    @Test
+    public void firstUse_deletesTheAbandonedFiles() throws IOException, InterruptedException {
+        Context context = RuntimeEnvironment.application;
+        File directory = new File(context.getCacheDir(), "spinner_items");
+        assertTrue(directory.mkdirs() || directory.isDirectory());
+        File abandoned = new File(directory, "abandoned");
+        File recent = new File(directory, "recent");
+        assertTrue(abandoned.createNewFile() && recent.createNewFile());
+        abandoned.setLastModified(System.currentTimeMillis() - SpinnerItemRegistry.MAX_FILE_AGE_MILLIS - 1000);
+
+        Bundle bundle = new Bundle();
+        List<BudgetHarness.Item> items = BudgetHarness.items(3);
+        SpinnerItemRegistry.putItems(context, bundle, KEY, items);
+        assertSame(items, SpinnerItemRegistry.getItems(context, bundle, KEY));
+
+        // the files are deleted and written on the registry thread
+        for (int i = 0; i < 100 && abandoned.exists(); i++) {
+            Thread.sleep(20);
+        }
+        assertFalse(abandoned.exists());
+        assertTrue(recent.exists());
+        SpinnerItemRegistry.release(context, bundle, KEY);
+    }
+}
@@ -0,0 +1,84 @@
+package com.android.jmaxime.views.adapters;
+
+import com.android.jmaxime.views.BudgetHarness;
+import com.android.jmaxime.views.core.CompactCatalog;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link SpinnerResourceAdapter} running on a {@link CatalogItemList} : the indexes read the
+ * catalog columns in place, and the null fields of the catalog stay null.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class CatalogItemListTest {
+
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private static final CatalogItemList.ItemFactory<BudgetHarness.Item> FACTORY =
+            new CatalogItemList.ItemFactory<BudgetHarness.Item>() {
+                @Override
+                public BudgetHarness.Item create(int position, String id, String title, String code) {
+                    return new BudgetHarness.Item(id, code, title);
+                }
+            };
+
+    @Test
+    public void adapterOnCatalog_searchesTheColumnsInPlace() {
+        CompactCatalog catalog = new CompactCatalog.Builder(4)
+                .add("a", "Pommes Golden", "AB-12")
+                .add("b", "Crème brûlée", null)
+                .add("c", "Чай зелёный", "ab-13")
+                .add("d", null, "")
+                .build();
+        SpinnerResourceAdapter<BudgetHarness.Item> adapter =
+                new SpinnerResourceAdapter<>(new CatalogItemList<>(catalog, FACTORY));
+        adapter.setFilterExecutor(DIRECT_EXECUTOR);
+
+        assertNull(catalog.getCode(1));
+        assertNull(catalog.getTitle(3));
+        assertEquals("", catalog.getCode(3));
+        assertEquals(2, adapter.getPositionById("c"));
+        assertEquals(-1, adapter.getPositionById("e"));
+
+        adapter.setFilterChoice("creme");
+        assertEquals(1, adapter.getItemCount());
+        assertEquals("b", adapter.getItem(0).getId());
+        adapter.setFilterChoice("зел");
+        assertEquals(1, adapter.getItemCount());
+        assertEquals("c", adapter.getItem(0).getId());
+
+        adapter.setFilterChoice("");
+        adapter.setSearchMode(SpinnerResourceAdapter.SEARCH_MODE_CODE_PREFIX);
+        adapter.setFilterChoice("ab-1");
+        assertEquals(2, adapter.getItemCount());
+        assertTrue(adapter.selectByCode("AB-13"));
+        assertEquals(2, adapter.getPositionById(adapter.getItem(1).getId()));
+    }
+
+    @Test
+    public void emptyChoiceOnCatalog_isRejected() {
+        CompactCatalog catalog = new CompactCatalog.Builder().add("a", "Alpha", "A").build();
+        try {
+            new SpinnerResourceAdapter<>(null, "none", new CatalogItemList<>(catalog, FACTORY), true);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().contains("CatalogItemList"));
+        }
+    }
+}
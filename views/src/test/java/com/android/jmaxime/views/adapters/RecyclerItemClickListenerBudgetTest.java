@@ -0,0 +1,109 @@
+package com.android.jmaxime.views.adapters;
+
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import com.android.jmaxime.views.BudgetHarness;
+import com.android.jmaxime.views.core.MetricsAggregator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.Shadows;
+import org.robolectric.annotation.Config;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Allocation budget of a scrolled list using {@link RecyclerItemClickListener} : once the first
+ * screen is filled, scrolling creates no row and no listener, and binds each row entering the screen once.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class RecyclerItemClickListenerBudgetTest {
+
+    private static final int ITEMS = 1000;
+    private static final int ROWS_SCROLLED = 300;
+    private static final int SCROLL_STEP = 37;
+
+    private RecyclerView mRecyclerView;
+    private LinearLayoutManager mLayoutManager;
+    private MetricsAggregator mMetrics;
+    private int mClickedPosition = RecyclerView.NO_POSITION;
+
+    @Before
+    public void setUp() {
+        SpinnerResourceAdapter<BudgetHarness.Item> adapter = new SpinnerResourceAdapter<>(BudgetHarness.items(ITEMS));
+        mRecyclerView = BudgetHarness.newList(BudgetHarness.themedContext(), adapter);
+        mLayoutManager = (LinearLayoutManager) mRecyclerView.getLayoutManager();
+        RecyclerItemClickListener.affectOnItemClick(mRecyclerView, new RecyclerItemClickListener.OnRecyclerOnItemClickListener() {
+            @Override
+            public void onItemClick(int position, View view) {
+                mClickedPosition = position;
+            }
+        });
+        mMetrics = BudgetHarness.startMetrics();
+        BudgetHarness.layout(mRecyclerView);
+    }
+
+    @After
+    public void tearDown() {
+        BudgetHarness.stopMetrics();
+    }
+
+    @Test
+    public void scrolling_createsNoRowOnceTheScreenIsFilled() {
+        int screenRows = mRecyclerView.getChildCount();
+        assertTrue(screenRows > 0);
+        scrollRows(screenRows);
+        mMetrics.snapshot(true);
+
+        int scrolled = scrollRows(ROWS_SCROLLED);
+        MetricsAggregator.Snapshot snapshot = mMetrics.snapshot(true);
+
+        assertTrue(scrolled >= ROWS_SCROLLED);
+        assertEquals(0, snapshot.getViewHolderCreateCount());
+        assertTrue("binds for " + scrolled + " rows : " + snapshot,
+                snapshot.getViewHolderBindCount() <= scrolled + screenRows);
+        assertEquals(0, snapshot.getViewHolderPartialBindCount());
+    }
+
+    @Test
+    public void scrolledRows_shareOneClickListener() {
+        scrollRows(ROWS_SCROLLED);
+
+        Set<View.OnClickListener> listeners = Collections.newSetFromMap(new IdentityHashMap<View.OnClickListener, Boolean>());
+        for (int i = 0; i < mRecyclerView.getChildCount(); i++) {
+            listeners.add(Shadows.shadowOf(mRecyclerView.getChildAt(i)).getOnClickListener());
+        }
+        assertEquals(1, listeners.size());
+
+        View row = mRecyclerView.getChildAt(1);
+        row.performClick();
+        assertEquals(mRecyclerView.getChildLayoutPosition(row), mClickedPosition);
+    }
+
+    /**
+     * Scrolls down by small steps, laying out the list after each one like a fling does
+     *
+     * @return the number of rows scrolled past the top of the list
+     */
+    private int scrollRows(int rows) {
+        int first = mLayoutManager.findFirstVisibleItemPosition();
+        int last = mLayoutManager.findLastVisibleItemPosition();
+        while (mLayoutManager.findFirstVisibleItemPosition() - first < rows && last < ITEMS - 1) {
+            mRecyclerView.scrollBy(0, SCROLL_STEP);
+            BudgetHarness.layout(mRecyclerView);
+            last = mLayoutManager.findLastVisibleItemPosition();
+        }
+        return mLayoutManager.findFirstVisibleItemPosition() - first;
+    }
+}
@@ -0,0 +1,163 @@
+package com.android.jmaxime.views.adapters;
+
+import android.os.SystemClock;
+import android.support.v7.widget.RecyclerView;
+import android.view.KeyEvent;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewConfiguration;
+import android.view.accessibility.AccessibilityNodeInfo;
+import android.widget.FrameLayout;
+
+import com.android.jmaxime.views.BudgetHarness;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Gesture mode of the item clicks : taps, long presses and double taps are dispatched once each,
+ * and the clicks which do not come from a touch reach the item listener through the row.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class RecyclerItemTouchListenerTest {
+
+    private static final int ITEMS = 50;
+    private static final long THROTTLE = 500;
+
+    private RecyclerView mRecyclerView;
+    private RecyclerItemTouchListener mTouchListener;
+    private final List<String> mEvents = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        SpinnerResourceAdapter<BudgetHarness.Item> adapter = new SpinnerResourceAdapter<>(BudgetHarness.items(ITEMS));
+        mRecyclerView = BudgetHarness.newList(BudgetHarness.themedContext(), adapter);
+        mTouchListener = RecyclerItemClickListener.affectOnItemTouch(mRecyclerView,
+                new RecyclerItemClickListener.OnRecyclerOnItemClickListener() {
+                    @Override
+                    public void onItemClick(int position, View view) {
+                        mEvents.add("click " + position);
+                    }
+                });
+        BudgetHarness.layout(mRecyclerView);
+    }
+
+    @Test
+    public void tap_clicksTheRowOnce() {
+        tap(2);
+        idle(ViewConfiguration.getDoubleTapTimeout());
+
+        assertEquals(events("click 2"), mEvents);
+    }
+
+    @Test
+    public void accessibilityAndKeyClicks_reachTheItemListener() {
+        View row = mRecyclerView.getChildAt(3);
+        row.performAccessibilityAction(AccessibilityNodeInfo.ACTION_CLICK, null);
+        row.dispatchKeyEvent(new KeyEvent(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_ENTER));
+        row.dispatchKeyEvent(new KeyEvent(KeyEvent.ACTION_UP, KeyEvent.KEYCODE_ENTER));
+
+        assertEquals(events("click 3", "click 3"), mEvents);
+    }
+
+    @Test
+    public void throttle_dropsTheTapsOfTheWindow() {
+        mTouchListener.setClickThrottle(THROTTLE);
+        tap(1);
+        idle(THROTTLE / 2);
+        tap(4);
+        idle(THROTTLE);
+        tap(5);
+
+        assertEquals(events("click 1", "click 5"), mEvents);
+    }
+
+    @Test
+    public void longPress_isNotFollowedByAClick() {
+        mTouchListener.setOnItemLongClickListener(new RecyclerItemTouchListener.OnItemLongClickListener() {
+            @Override
+            public void onItemLongClick(int position, View view) {
+                mEvents.add("long " + position);
+            }
+        });
+        long downTime = SystemClock.uptimeMillis();
+        touch(MotionEvent.ACTION_DOWN, downTime, 6);
+        idle(ViewConfiguration.getLongPressTimeout() + ViewConfiguration.getTapTimeout());
+        touch(MotionEvent.ACTION_UP, downTime, 6);
+
+        assertEquals(events("long 6"), mEvents);
+    }
+
+    @Test
+    public void doubleTap_isNotAlsoTwoClicks() {
+        mTouchListener.setOnItemDoubleClickListener(new RecyclerItemTouchListener.OnItemDoubleClickListener() {
+            @Override
+            public void onItemDoubleClick(int position, View view) {
+                mEvents.add("double " + position);
+            }
+        });
+        tap(2);
+        idle(ViewConfiguration.getDoubleTapTimeout() / 4);
+        tap(2);
+        idle(ViewConfiguration.getDoubleTapTimeout());
+        tap(4);
+        idle(ViewConfiguration.getDoubleTapTimeout());
+
+        assertEquals(events("double 2", "click 4"), mEvents);
+    }
+
+    @Test
+    public void tapStoppingAFling_doesNotClick() {
+        mTouchListener.setOnItemLongClickListener(new RecyclerItemTouchListener.OnItemLongClickListener() {
+            @Override
+            public void onItemLongClick(int position, View view) {
+                mEvents.add("long " + position);
+            }
+        });
+        /* a settling list asks its parent not to intercept the touch which stops it */
+        new FrameLayout(mRecyclerView.getContext()).addView(mRecyclerView);
+        mRecyclerView.fling(0, 8000);
+        assertEquals(RecyclerView.SCROLL_STATE_SETTLING, mRecyclerView.getScrollState());
+        tap(2);
+        idle(ViewConfiguration.getDoubleTapTimeout());
+
+        assertEquals(events(), mEvents);
+    }
+
+    private static void idle(long millis) {
+        ShadowLooper.idleMainLooper(millis, TimeUnit.MILLISECONDS);
+    }
+
+    private void tap(int row) {
+        long downTime = SystemClock.uptimeMillis();
+        touch(MotionEvent.ACTION_DOWN, downTime, row);
+        touch(MotionEvent.ACTION_UP, downTime, row);
+    }
+
+    private void touch(int action, long downTime, int row) {
+        View child = mRecyclerView.getChildAt(row);
+        MotionEvent event = MotionEvent.obtain(downTime, SystemClock.uptimeMillis(), action,
+                child.getLeft() + child.getWidth() / 2, child.getTop() + child.getHeight() / 2, 0);
+        mRecyclerView.dispatchTouchEvent(event);
+        event.recycle();
+    }
+
+    private static List<String> events(String... events) {
+        List<String> list = new ArrayList<>();
+        for (String event : events) {
+            list.add(event);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,79 @@
+package com.android.jmaxime.views.adapters;
+
+import android.database.DataSetObserver;
+
+import com.android.jmaxime.views.BudgetHarness;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link SpinnerElementAdapter} displays the changes made in place to {@link SpinnerElementAdapter#getList()}
+ * once it is notified, and filters them again on the filter thread.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class SpinnerElementAdapterTest {
+
+    @Test
+    public void listChangedInPlace_isDisplayedOnceNotified() {
+        ArrayList<BudgetHarness.Item> items = BudgetHarness.items(3);
+        SpinnerElementAdapter<BudgetHarness.Item> adapter = new SpinnerElementAdapter<>(RuntimeEnvironment.application, items);
+
+        adapter.getList().remove(0);
+        adapter.getList().add(BudgetHarness.items(4).get(3));
+        adapter.notifyDataSetChanged();
+
+        assertEquals(3, adapter.getCount());
+        assertEquals(items.get(0).getTitle(), adapter.getItem(0));
+        assertEquals("Delta Alpha 3", adapter.getItem(2));
+    }
+
+    @Test
+    public void listChangedInPlace_isFilteredAgainOnTheFilterThread() {
+        ArrayList<BudgetHarness.Item> items = BudgetHarness.items(20);
+        SpinnerElementAdapter<BudgetHarness.Item> adapter = new SpinnerElementAdapter<>(RuntimeEnvironment.application, items);
+        adapter.getFilter().filter("alpha");
+        flushFilter();
+        assertEquals(10, adapter.getCount());
+
+        adapter.getList().remove(0);
+        adapter.notifyDataSetChanged();
+        flushFilter();
+        assertEquals(9, adapter.getCount());
+        assertEquals("Bravo Alpha 1", adapter.getItem(0));
+        assertEquals("Bravo Alpha 1", adapter.getElement(0).getTitle());
+    }
+
+    @Test
+    public void clear_emptiesTheListWithASingleNotification() {
+        SpinnerElementAdapter<BudgetHarness.Item> adapter = new SpinnerElementAdapter<>(RuntimeEnvironment.application,
+                BudgetHarness.items(3));
+        final int[] changes = new int[1];
+        adapter.registerDataSetObserver(new DataSetObserver() {
+            @Override
+            public void onChanged() {
+                changes[0]++;
+            }
+        });
+        adapter.clear();
+
+        assertEquals(0, adapter.getCount());
+        assertEquals(0, adapter.getList().size());
+        assertEquals(1, changes[0]);
+    }
+
+    private static void flushFilter() {
+        Robolectric.flushBackgroundThreadScheduler();
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+    }
+}
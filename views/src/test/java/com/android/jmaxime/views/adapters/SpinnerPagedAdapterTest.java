@@ -0,0 +1,157 @@
+package com.android.jmaxime.views.adapters;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import com.android.jmaxime.views.BudgetHarness;
+import com.android.jmaxime.views.CheckedTitleRowView;
+import com.android.jmaxime.views.R;
+import com.android.jmaxime.views.interfaces.SpinnerPagedSource;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Failures of the {@link SpinnerPagedSource} reach the error listener and do not block the pages,
+ * and the selection follows its item across the reloads.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class SpinnerPagedAdapterTest {
+
+    private static final int ITEMS = 100;
+    private static final int PAGE_SIZE = 10;
+
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private final ArrayList<BudgetHarness.Item> mItems = BudgetHarness.items(ITEMS);
+    private final List<String> mErrors = new ArrayList<>();
+    private boolean mFailing;
+    private SpinnerPagedAdapter<BudgetHarness.Item> mAdapter;
+
+    @Before
+    public void setUp() {
+        SpinnerPagedSource<BudgetHarness.Item> source = new SpinnerPagedSource<BudgetHarness.Item>() {
+            @Override
+            public int count(String filter) {
+                if (mFailing) {
+                    throw new IllegalStateException("count");
+                }
+                return mItems.size();
+            }
+
+            @Override
+            public List<BudgetHarness.Item> loadRange(String filter, int offset, int limit) {
+                if (mFailing) {
+                    throw new IllegalStateException("loadRange");
+                }
+                return new ArrayList<>(mItems.subList(offset, offset + limit));
+            }
+        };
+        mAdapter = new SpinnerPagedAdapter<>(source, PAGE_SIZE, 0, 4);
+        mAdapter.setExecutor(DIRECT_EXECUTOR);
+        mAdapter.setOnLoadErrorListener(new SpinnerPagedAdapter.OnLoadErrorListener() {
+            @Override
+            public void onLoadError(String filter, RuntimeException error) {
+                mErrors.add(error.getMessage());
+            }
+        });
+        // the constructor loaded the first page on the default executor, load it again on this one
+        mAdapter.setFilterChoice("");
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+    }
+
+    @Test
+    public void failedPage_isReportedAndLoadedAgain() {
+        mFailing = true;
+        assertNull(mAdapter.getItem(55));
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        assertEquals(1, mErrors.size());
+
+        mFailing = false;
+        assertNull(mAdapter.getItem(55));
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        assertNotNull(mAdapter.getItem(55));
+        assertEquals(1, mErrors.size());
+    }
+
+    @Test
+    public void selectionAfterAFilter_leavesASingleCheckedRow() {
+        /* the pages requested by a layout are loaded and bound before the next one */
+        ShadowLooper.pauseMainLooper();
+        final Handler handler = new Handler(Looper.getMainLooper());
+        mAdapter.setExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                handler.post(command);
+            }
+        });
+        RecyclerView recyclerView = BudgetHarness.newList(BudgetHarness.themedContext(), mAdapter);
+        settle(recyclerView);
+        mAdapter.selectedItem(3);
+        settle(recyclerView);
+        mAdapter.setFilterChoice("a");
+        settle(recyclerView);
+        assertEquals(1, checkedRows(recyclerView));
+
+        mAdapter.selectedItem(5);
+        settle(recyclerView);
+        assertEquals(1, checkedRows(recyclerView));
+        assertTrue(row(recyclerView.findViewHolderForAdapterPosition(5).itemView).isChecked());
+    }
+
+    @Test
+    public void failedCount_isReportedAndEmptiesTheList() {
+        mFailing = true;
+        mAdapter.setFilterChoice("alpha");
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+
+        assertEquals(0, mAdapter.getItemCount());
+        assertEquals(1, mErrors.size());
+
+        mFailing = false;
+        mAdapter.setFilterChoice("alpha");
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        assertEquals(ITEMS, mAdapter.getItemCount());
+    }
+
+    private static void settle(RecyclerView recyclerView) {
+        BudgetHarness.layout(recyclerView);
+        BudgetHarness.layout(recyclerView);
+        BudgetHarness.layout(recyclerView);
+    }
+
+    private static int checkedRows(RecyclerView recyclerView) {
+        int checked = 0;
+        for (int i = 0; i < recyclerView.getChildCount(); i++) {
+            if (row(recyclerView.getChildAt(i)).isChecked()) {
+                checked++;
+            }
+        }
+        return checked;
+    }
+
+    private static CheckedTitleRowView row(View itemView) {
+        return (CheckedTitleRowView) itemView.findViewById(R.id.check_text_choice);
+    }
+}
@@ -0,0 +1,171 @@
+package com.android.jmaxime.views.adapters;
+
+import android.support.v7.widget.RecyclerView;
+
+import com.android.jmaxime.views.BudgetHarness;
+import com.android.jmaxime.views.core.MetricsAggregator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Bind budgets of {@link SpinnerResourceAdapter} in a laid out {@link RecyclerView} :
+ * a selection change only rebinds the check mark of the rows it touches, and a filter keystroke
+ * binds at most the rows of one screen, none when the matches do not change.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class SpinnerResourceAdapterBudgetTest {
+
+    private static final int ITEMS = 500;
+    /**
+     * Rows rebound by a single choice change : the previous and the new selected rows
+     */
+    private static final int SINGLE_SELECTION_BINDS = 2;
+    private static final int MULTIPLE_SELECTION_BINDS = 1;
+
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private SpinnerResourceAdapter<BudgetHarness.Item> mAdapter;
+    private RecyclerView mRecyclerView;
+    private MetricsAggregator mMetrics;
+
+    @Before
+    public void setUp() {
+        mAdapter = new SpinnerResourceAdapter<>(BudgetHarness.items(ITEMS));
+        mAdapter.setAsyncFilter(true);
+        mAdapter.setFilterExecutor(DIRECT_EXECUTOR);
+        mRecyclerView = BudgetHarness.newList(BudgetHarness.themedContext(), mAdapter);
+        BudgetHarness.layout(mRecyclerView);
+        mMetrics = BudgetHarness.startMetrics();
+    }
+
+    @After
+    public void tearDown() {
+        BudgetHarness.stopMetrics();
+    }
+
+    @Test
+    public void singleSelectionChange_rebindsTheCheckMarkOnly() {
+        select(3);
+        select(5);
+        MetricsAggregator.Snapshot snapshot = select(7);
+
+        assertEquals(0, snapshot.getViewHolderBindCount());
+        assertEquals(SINGLE_SELECTION_BINDS, snapshot.getViewHolderPartialBindCount());
+        assertEquals(0, snapshot.getViewHolderCreateCount());
+    }
+
+    @Test
+    public void multipleSelectionToggle_rebindsTheCheckMarkOnly() {
+        mAdapter.setChoiceMode(SpinnerResourceAdapter.CHOICE_MODE_MULTIPLE);
+        BudgetHarness.layout(mRecyclerView);
+        select(3);
+        MetricsAggregator.Snapshot snapshot = select(4);
+
+        assertEquals(0, snapshot.getViewHolderBindCount());
+        assertEquals(MULTIPLE_SELECTION_BINDS, snapshot.getViewHolderPartialBindCount());
+
+        mAdapter.selectAllFiltered();
+        BudgetHarness.layout(mRecyclerView);
+        snapshot = mMetrics.snapshot(true);
+        assertEquals(0, snapshot.getViewHolderBindCount());
+        assertTrue(snapshot.getViewHolderPartialBindCount() <= mRecyclerView.getChildCount());
+    }
+
+    @Test
+    public void filterKeystroke_bindsAtMostOneScreen() {
+        int screenRows = mRecyclerView.getChildCount();
+        assertTrue(screenRows > 0);
+        String query = "echo golf";
+        for (int i = 1; i <= query.length(); i++) {
+            MetricsAggregator.Snapshot snapshot = type(query.substring(0, i));
+
+            assertEquals(1, snapshot.getFilterCount());
+            assertTrue("binds for \"" + query.substring(0, i) + "\" : " + snapshot,
+                    bindsOf(snapshot) <= screenRows);
+        }
+    }
+
+    @Test
+    public void synchronousFilterKeystroke_bindsAtMostOneScreen() {
+        mAdapter.setAsyncFilter(false);
+        int screenRows = mRecyclerView.getChildCount();
+        type("echo");
+        MetricsAggregator.Snapshot snapshot = type("echo ");
+
+        assertEquals(1, snapshot.getFilterCount());
+        assertEquals(0, bindsOf(snapshot));
+
+        snapshot = type("echo g");
+        assertTrue(mAdapter.getItemCount() > 0);
+        assertTrue("binds for \"echo g\" : " + snapshot, bindsOf(snapshot) <= screenRows);
+    }
+
+    @Test
+    public void filterKeystroke_withSameMatches_bindsNothing() {
+        type("echo");
+        // every title containing "echo" continues with a space
+        MetricsAggregator.Snapshot snapshot = type("echo ");
+
+        assertTrue(mAdapter.getItemCount() > 0);
+        assertEquals(0, bindsOf(snapshot));
+        assertEquals(0, snapshot.getViewHolderCreateCount());
+    }
+
+    @Test
+    public void filterKeystroke_backspace_isCachedAndBindsAtMostOneScreen() {
+        type("e");
+        type("ec");
+        MetricsAggregator.Snapshot snapshot = type("e");
+
+        assertEquals(1, mAdapter.getFilterCacheHitCount());
+        assertTrue(bindsOf(snapshot) <= mRecyclerView.getChildCount());
+    }
+
+    @Test
+    public void notification_reportsTheRowsBoundByTheLayoutWhichFollows() {
+        select(3);
+        MetricsAggregator.Snapshot snapshot = select(7);
+
+        assertEquals(1, snapshot.getReboundCount());
+        assertEquals(SINGLE_SELECTION_BINDS, snapshot.getRowsRebound());
+
+        snapshot = type("golf");
+        assertEquals(1, snapshot.getReboundCount());
+        assertTrue(snapshot.getRowsRebound() > 0);
+        assertEquals(bindsOf(snapshot), snapshot.getRowsRebound());
+    }
+
+    private MetricsAggregator.Snapshot select(int position) {
+        mMetrics.snapshot(true);
+        mAdapter.selectedItem(position);
+        BudgetHarness.layout(mRecyclerView);
+        return mMetrics.snapshot(true);
+    }
+
+    private MetricsAggregator.Snapshot type(String query) {
+        mMetrics.snapshot(true);
+        mAdapter.setFilterChoice(query);
+        BudgetHarness.layout(mRecyclerView);
+        return mMetrics.snapshot(true);
+    }
+
+    private static long bindsOf(MetricsAggregator.Snapshot snapshot) {
+        return snapshot.getViewHolderBindCount() + snapshot.getViewHolderPartialBindCount();
+    }
+}
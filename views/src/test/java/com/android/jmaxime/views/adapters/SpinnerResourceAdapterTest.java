@@ -0,0 +1,148 @@
+package com.android.jmaxime.views.adapters;
+
+import android.support.v7.widget.RecyclerView;
+
+import com.android.jmaxime.views.BudgetHarness;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Behaviour of {@link SpinnerResourceAdapter} which the budget tests do not cover : the indexes built
+ * from a copy of the list, the code prefix narrowing and the multiple selection.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class SpinnerResourceAdapterTest {
+
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    @Test
+    public void listChangedInPlace_isFilteredAsItIsNow() {
+        ArrayList<BudgetHarness.Item> items = BudgetHarness.items(20);
+        SpinnerResourceAdapter<BudgetHarness.Item> adapter = new SpinnerResourceAdapter<>(items);
+        adapter.setFilterExecutor(DIRECT_EXECUTOR);
+
+        items.remove(19);
+        items.add(BudgetHarness.items(21).get(20));
+        adapter.setFilterChoice("20");
+        assertEquals(1, adapter.getItemCount());
+        assertEquals("id-20", adapter.getItem(0).getId());
+
+        items.clear();
+        adapter.setFilterChoice("alpha");
+        assertEquals(0, adapter.getItemCount());
+    }
+
+    @Test
+    public void listChangedInPlace_asyncFilterDoesNotReadIt() {
+        ArrayList<BudgetHarness.Item> items = BudgetHarness.items(20);
+        final ArrayList<Runnable> pending = new ArrayList<>();
+        SpinnerResourceAdapter<BudgetHarness.Item> adapter = new SpinnerResourceAdapter<>(items);
+        adapter.setAsyncFilter(true);
+        adapter.setFilterExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                pending.add(command);
+            }
+        });
+
+        adapter.setFilterChoice("alpha");
+        items.clear();
+        for (Runnable command : pending) {
+            command.run();
+        }
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+
+        // the query was searched in the list as it was when it was typed
+        assertTrue(adapter.getItemCount() > 0);
+        assertTrue(adapter.getItem(0).getTitle().startsWith("Alpha"));
+    }
+
+    @Test
+    public void codePrefixTypedCharByChar_matchesInListOrder() {
+        SpinnerResourceAdapter<BudgetHarness.Item> adapter = new SpinnerResourceAdapter<>(BudgetHarness.items(500));
+        adapter.setFilterExecutor(DIRECT_EXECUTOR);
+        adapter.setSearchMode(SpinnerResourceAdapter.SEARCH_MODE_CODE_PREFIX);
+
+        String[] prefixes = {"c", "co", "code", "code1", "code12", "code1", "code2", "code29", "code299"};
+        int[] counts = {500, 500, 500, 111, 11, 111, 111, 11, 1};
+        for (int i = 0; i < prefixes.length; i++) {
+            adapter.setFilterChoice(prefixes[i]);
+            assertEquals(prefixes[i], counts[i], adapter.getItemCount());
+            int previous = -1;
+            for (int row = 0; row < adapter.getItemCount(); row++) {
+                int position = Integer.parseInt(adapter.getItem(row).getId().substring("id-".length()));
+                assertTrue(prefixes[i], position > previous);
+                assertTrue(prefixes[i], adapter.getItem(row).getCode().toLowerCase().startsWith(prefixes[i]));
+                previous = position;
+            }
+        }
+    }
+
+    @Test
+    public void selectAllAndInvert_skipTheEmptyChoice() {
+        SpinnerResourceAdapter<BudgetHarness.Item> adapter =
+                new SpinnerResourceAdapter<>(null, "none", BudgetHarness.items(10), true);
+        adapter.setChoiceMode(SpinnerResourceAdapter.CHOICE_MODE_MULTIPLE);
+
+        adapter.selectAllFiltered();
+        assertEquals(10, adapter.getSelectedCount());
+        assertEquals(10, adapter.getSelectedItems().size());
+
+        adapter.selectedItem(3);
+        adapter.invertFilteredSelection();
+        assertEquals(1, adapter.getSelectedCount());
+        assertEquals("id-2", adapter.getSelectedItems().get(0).getId());
+    }
+
+    @Test
+    public void setSectioned_notifiesTheObserversOnceWhenTheModeChanges() {
+        SpinnerResourceAdapter<BudgetHarness.Item> adapter = new SpinnerResourceAdapter<>(BudgetHarness.items(10));
+        final int[] changes = new int[1];
+        adapter.registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+            @Override
+            public void onItemRangeChanged(int positionStart, int itemCount) {
+                changes[0]++;
+            }
+        });
+
+        adapter.setSectioned(true);
+        adapter.setSectioned(true);
+        assertEquals(1, changes[0]);
+        assertTrue(adapter.getSections().length > 0);
+
+        adapter.setSectioned(false);
+        assertEquals(2, changes[0]);
+        assertEquals(0, adapter.getSections().length);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void selectAllFiltered_inSingleChoiceMode_throws() {
+        new SpinnerResourceAdapter<>(BudgetHarness.items(10)).selectAllFiltered();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void invertFilteredSelection_inSingleChoiceMode_throws() {
+        new SpinnerResourceAdapter<>(BudgetHarness.items(10)).invertFilteredSelection();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void clearSelection_inSingleChoiceMode_throws() {
+        new SpinnerResourceAdapter<>(BudgetHarness.items(10)).clearSelection();
+    }
+}
@@ -0,0 +1,81 @@
+package com.android.jmaxime.views.adapters;
+
+import android.os.Looper;
+import android.os.MessageQueue;
+
+import com.android.jmaxime.views.BudgetHarness;
+import com.android.jmaxime.views.core.MetricsAggregator;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+import org.robolectric.util.ReflectionHelpers;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link SpinnerRowPool#prewarm} creates its rows on the main thread, in its idle times.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 26)
+public class SpinnerRowPoolTest {
+
+    private static final int MAX_ROWS = 6;
+
+    @After
+    public void tearDown() {
+        BudgetHarness.stopMetrics();
+    }
+
+    @Test
+    public void prewarm_fillsThePoolInIdleTimes() {
+        MetricsAggregator metrics = BudgetHarness.startMetrics();
+        SpinnerRowPool pool = new SpinnerRowPool(MAX_ROWS);
+        SpinnerResourceAdapter<BudgetHarness.Item> adapter = new SpinnerResourceAdapter<>(BudgetHarness.items(10));
+        pool.prewarm(BudgetHarness.themedContext(), adapter, SpinnerResourceAdapter.CHOICE_MODE_SINGLE, 2 * MAX_ROWS);
+        assertEquals(0, pool.getRecycledViewCount(SpinnerResourceAdapter.CHOICE_MODE_SINGLE));
+
+        for (int i = 0; i < 2 * MAX_ROWS; i++) {
+            ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+            runIdleHandlers();
+        }
+
+        assertEquals(MAX_ROWS, pool.getRecycledViewCount(SpinnerResourceAdapter.CHOICE_MODE_SINGLE));
+        assertEquals(MAX_ROWS, metrics.snapshot(false).getViewHolderCreateCount());
+    }
+
+    @Test
+    public void prewarm_stopsWhenThePoolDropsTheRows() {
+        MetricsAggregator metrics = BudgetHarness.startMetrics();
+        SpinnerRowPool pool = new SpinnerRowPool(MAX_ROWS);
+        pool.setMaxRecycledViews(SpinnerResourceAdapter.CHOICE_MODE_SINGLE, 2);
+        SpinnerResourceAdapter<BudgetHarness.Item> adapter = new SpinnerResourceAdapter<>(BudgetHarness.items(10));
+        pool.prewarm(BudgetHarness.themedContext(), adapter, SpinnerResourceAdapter.CHOICE_MODE_SINGLE, MAX_ROWS);
+
+        for (int i = 0; i < 2 * MAX_ROWS; i++) {
+            ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+            runIdleHandlers();
+        }
+
+        assertEquals(2, pool.getRecycledViewCount(SpinnerResourceAdapter.CHOICE_MODE_SINGLE));
+        assertEquals(3, metrics.snapshot(false).getViewHolderCreateCount());
+    }
+
+    /**
+     * Robolectric 3 does not run the idle handlers : runs them like an empty main queue does
+     */
+    private static void runIdleHandlers() {
+        MessageQueue queue = Looper.getMainLooper().getQueue();
+        ArrayList<MessageQueue.IdleHandler> handlers = ReflectionHelpers.getField(queue, "mIdleHandlers");
+        for (MessageQueue.IdleHandler handler : new ArrayList<>(handlers)) {
+            if (!handler.queueIdle()) {
+                queue.removeIdleHandler(handler);
+            }
+        }
+    }
+}